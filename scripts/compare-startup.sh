@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Measures time to first successful request for the default startup and for fast-start (AOT + CDS + lazy init).
+# Usage: RUNS=10 scripts/compare-startup.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+
+# The fast-start build also produces the plain JAR; AOT code is only used when spring.aot.enabled=true
+./mvnw -q -Pfast-start -DskipTests package
+./mvnw -q -Pbenchmark test-compile
+
+run_mode() {
+  local label=$1 jar=$2 jvm_arguments=$3 app_arguments=$4
+  ./mvnw -q -Pbenchmark exec:exec@startup-test \
+    -Dstartup.jar="$jar" \
+    -Dstartup.jvmArguments="$jvm_arguments" \
+    -Dstartup.appArguments="$app_arguments" \
+    -Dstartup.runs="$RUNS" \
+    -Dstartup.port="$PORT" \
+    -Dstartup.label="$label"
+}
+
+run_mode default target/ReceiptProcessor-0.0.1-SNAPSHOT.jar "" ""
+run_mode fast-start target/cds/ReceiptProcessor-0.0.1-SNAPSHOT.jar \
+  "-XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true" "--spring.profiles.active=fast-start"
+
+echo "Reports written to target/startup-default.json and target/startup-fast-start.json"
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Runs the same load against platform-thread and virtual-thread request handling and prints both reports.
+# Usage: CONCURRENCY=2000 DURATION=60 scripts/compare-thread-modes.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=target/ReceiptProcessor-0.0.1-SNAPSHOT.jar
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30}
+PORT=${PORT:-8080}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+./mvnw -q -DskipTests package
+./mvnw -q -Pbenchmark test-compile
+
+# The instance under test, stopped on exit so a failed run does not leave it holding the port
+pid=
+trap 'if [[ -n "$pid" ]]; then kill "$pid" 2> /dev/null; wait "$pid" || true; fi' EXIT
+
+run_mode() {
+  local label=$1
+  shift
+  java -jar "$JAR" --server.port="$PORT" "$@" > "target/app-$label.log" 2>&1 &
+  pid=$!
+  # Give up if the application exits or is not healthy in time, instead of polling forever
+  local deadline=$((SECONDS + STARTUP_TIMEOUT))
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Application exited during startup, see target/app-$label.log" >&2
+      exit 1
+    fi
+    if ((SECONDS >= deadline)); then
+      echo "Application not healthy after ${STARTUP_TIMEOUT}s, see target/app-$label.log" >&2
+      exit 1
+    fi
+    sleep 0.5
+  done
+
+  ./mvnw -q -Pbenchmark exec:exec@load-test \
+    -Dload.baseUrl="http://localhost:$PORT" \
+    -Dload.concurrency="$CONCURRENCY" \
+    -Dload.durationSeconds="$DURATION" \
+    -Dload.label="$label"
+
+  kill "$pid"
+  wait "$pid" || true
+  pid=
+}
+
+run_mode platform-threads
+run_mode virtual-threads --spring.profiles.active=virtual-threads
+
+echo "Reports written to target/load-platform-threads.json and target/load-virtual-threads.json"
+echo "Pinned virtual threads, if any, are logged in target/app-virtual-threads.log"
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Compares the servlet stack (platform and virtual threads) with the reactive stack: server memory and threads per
+# in-flight connection, then throughput and latency under the same load.
+# Usage: CONNECTIONS=5000 CONCURRENCY=1000 STORE=memory scripts/compare-web-stacks.sh
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=target/ReceiptProcessor-0.0.1-SNAPSHOT.jar
+CONNECTIONS=${CONNECTIONS:-2000}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30}
+STORE=${STORE:-jpa}
+PORT=${PORT:-18080}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+# The reactive stack is only in JARs built with the reactive profile; servlet modes run from the same JAR
+./mvnw -q -Preactive -DskipTests package
+./mvnw -q -Pbenchmark,reactive test-compile
+
+# The instance under test, stopped on exit so a failed run does not leave it holding the port
+pid=
+trap 'if [[ -n "$pid" ]]; then kill "$pid" 2> /dev/null; wait "$pid" || true; fi' EXIT
+
+run_mode() {
+  local label=$1 app_arguments="--receipt.store.type=$STORE $2"
+
+  ./mvnw -q -Pbenchmark exec:exec@connection-test \
+    -Dconnections.jar="$JAR" \
+    -Dconnections.appArguments="$app_arguments" \
+    -Dconnections.count="$CONNECTIONS" \
+    -Dconnections.port="$PORT" \
+    -Dconnections.label="$label"
+
+  # shellcheck disable=SC2086
+  java -jar "$JAR" --server.port="$PORT" $app_arguments > "target/app-$label.log" 2>&1 &
+  pid=$!
+  # Give up if the application exits or is not healthy in time, instead of polling forever
+  local deadline=$((SECONDS + STARTUP_TIMEOUT))
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "Application exited during startup, see target/app-$label.log" >&2
+      exit 1
+    fi
+    if ((SECONDS >= deadline)); then
+      echo "Application not healthy after ${STARTUP_TIMEOUT}s, see target/app-$label.log" >&2
+      exit 1
+    fi
+    sleep 0.5
+  done
+
+  ./mvnw -q -Pbenchmark exec:exec@load-test \
+    -Dload.baseUrl="http://localhost:$PORT" \
+    -Dload.concurrency="$CONCURRENCY" \
+    -Dload.durationSeconds="$DURATION" \
+    -Dload.label="$label"
+
+  kill "$pid"
+  wait "$pid" || true
+  pid=
+}
+
+run_mode servlet ""
+run_mode virtual-threads "--spring.profiles.active=virtual-threads"
+run_mode reactive "--spring.profiles.active=reactive"
+
+echo "Per-connection reports: target/connections-{servlet,virtual-threads,reactive}.json"
+echo "Throughput reports: target/load-{servlet,virtual-threads,reactive}.json"
@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Starts a local instance, runs the mixed POST/GET load test against it and fails if throughput, p99 latency or
+# error rate cross the thresholds. Extra arguments are passed to the application.
+# Usage: MIN_THROUGHPUT=5000 MAX_P99_MILLIS=50 scripts/load-regression.sh [--spring.profiles.active=virtual-threads]
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+JAR=target/ReceiptProcessor-0.0.1-SNAPSHOT.jar
+CONCURRENCY=${CONCURRENCY:-256}
+DURATION=${DURATION:-30}
+GET_RATIO=${GET_RATIO:-0.5}
+MIN_THROUGHPUT=${MIN_THROUGHPUT:-1000}
+MAX_P99_MILLIS=${MAX_P99_MILLIS:-100}
+MAX_ERROR_RATE=${MAX_ERROR_RATE:-0.001}
+LABEL=${LABEL:-regression}
+PORT=${PORT:-8080}
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+./mvnw -q -DskipTests package
+./mvnw -q -Pbenchmark test-compile
+
+java -jar "$JAR" --server.port="$PORT" "$@" > "target/app-$LABEL.log" 2>&1 &
+pid=$!
+trap 'kill "$pid" 2> /dev/null; wait "$pid" || true' EXIT
+# Give up if the application exits or is not healthy in time, instead of polling forever
+deadline=$((SECONDS + STARTUP_TIMEOUT))
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+  if ! kill -0 "$pid" 2> /dev/null; then
+    echo "Application exited during startup, see target/app-$LABEL.log" >&2
+    exit 1
+  fi
+  if ((SECONDS >= deadline)); then
+    echo "Application not healthy after ${STARTUP_TIMEOUT}s, see target/app-$LABEL.log" >&2
+    exit 1
+  fi
+  sleep 0.5
+done
+
+./mvnw -q -Pbenchmark exec:exec@load-test \
+  -Dload.baseUrl="http://localhost:$PORT" \
+  -Dload.concurrency="$CONCURRENCY" \
+  -Dload.durationSeconds="$DURATION" \
+  -Dload.getRatio="$GET_RATIO" \
+  -Dload.minThroughput="$MIN_THROUGHPUT" \
+  -Dload.maxP99Millis="$MAX_P99_MILLIS" \
+  -Dload.maxErrorRate="$MAX_ERROR_RATE" \
+  -Dload.label="$LABEL"
+
+echo "Report written to target/load-$LABEL.json"
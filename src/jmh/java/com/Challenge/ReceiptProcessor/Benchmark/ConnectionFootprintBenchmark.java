@@ -0,0 +1,183 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Launches the application and measures what an in-flight request costs the server. Each connection sends the
+// headers and half the body of POST /receipts/process, then stalls: a servlet container parks a thread on every
+// such request while an event loop parks nothing. Resident memory and thread count come from /proc, so Linux only
+public final class ConnectionFootprintBenchmark {
+
+    private ConnectionFootprintBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jar = System.getProperty("connections.jar", "target/ReceiptProcessor-0.0.1-SNAPSHOT.jar");
+        String jvmArguments = System.getProperty("connections.jvmArguments", "");
+        String appArguments = System.getProperty("connections.appArguments", "");
+        int connections = Integer.getInteger("connections.count", 2000);
+        int port = Integer.getInteger("connections.port", 18080);
+        int timeoutSeconds = Integer.getInteger("connections.timeoutSeconds", 120);
+        String label = System.getProperty("connections.label", "run");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(split(jvmArguments));
+        command.add("-jar");
+        command.add(new File(jar).getName());
+        command.add("--server.port=" + port);
+        command.addAll(split(appArguments));
+
+        Path log = Path.of("target", "connections-" + label + ".log").toAbsolutePath();
+        Files.createDirectories(log.getParent());
+        Process process = new ProcessBuilder(command)
+                .directory(new File(jar).getAbsoluteFile().getParentFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                .start();
+
+        byte[] body = SyntheticReceipts.json(new Random(0), 5, 12).getBytes(StandardCharsets.UTF_8);
+        byte[] head = ("POST /receipts/process HTTP/1.1\r\nHost: localhost\r\nContent-Type: application/json\r\n"
+                + "Content-Length: " + body.length + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        int half = body.length / 2;
+
+        List<Socket> sockets = new ArrayList<>(connections);
+        try {
+            awaitReady(process, port, body, log, Duration.ofSeconds(timeoutSeconds).toNanos());
+
+            // Warm up so class loading and JIT do not count towards the first connections
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 2000; i++) {
+                    executor.submit(() -> complete(open(port, head, body, half), body, half));
+                }
+            }
+            Thread.sleep(2000);
+            long baselineRss = status(process, "VmRSS");
+            long baselineThreads = status(process, "Threads");
+
+            for (int i = 0; i < connections; i++) {
+                sockets.add(open(port, head, body, half));
+            }
+            Thread.sleep(3000);
+            long heldRss = status(process, "VmRSS");
+            long heldThreads = status(process, "Threads");
+
+            // Finish every stalled request and count the ones that succeed
+            int completed = 0;
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Boolean>> results = new ArrayList<>(connections);
+                for (Socket socket : sockets) {
+                    results.add(executor.submit(() -> complete(socket, body, half)));
+                }
+                for (Future<Boolean> result : results) {
+                    if (result.get()) {
+                        completed++;
+                    }
+                }
+            }
+
+            String report = String.format(Locale.ROOT,
+                    "{\"label\":\"%s\",\"connections\":%d,\"completed\":%d,\"baselineRssKiB\":%d,\"heldRssKiB\":%d,"
+                            + "\"rssPerConnectionKiB\":%.1f,\"baselineThreads\":%d,\"heldThreads\":%d}",
+                    label, connections, completed, baselineRss, heldRss, (heldRss - baselineRss) / (double) connections,
+                    baselineThreads, heldThreads);
+            System.out.println(report);
+            Files.writeString(Path.of("target", "connections-" + label + ".json"), report);
+        } finally {
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static void awaitReady(Process process, int port, byte[] body, Path log, long timeoutNanos)
+            throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/receipts/process"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < timeoutNanos) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("No successful request within the timeout, see " + log);
+    }
+
+    // Connects and sends the headers and the first part of the body
+    private static Socket open(int port, byte[] head, byte[] body, int sent) throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress("localhost", port), 10_000);
+        OutputStream out = socket.getOutputStream();
+        out.write(head);
+        out.write(body, 0, sent);
+        out.flush();
+        return socket;
+    }
+
+    // Sends the rest of the body and reports whether the response status is 200
+    private static boolean complete(Socket socket, byte[] body, int sent) {
+        try (socket) {
+            socket.setSoTimeout(60_000);
+            OutputStream out = socket.getOutputStream();
+            out.write(body, sent, body.length - sent);
+            out.flush();
+            InputStream in = socket.getInputStream();
+            byte[] statusLine = new byte[12];
+            int read = in.readNBytes(statusLine, 0, statusLine.length);
+            in.transferTo(OutputStream.nullOutputStream());
+            return read == statusLine.length && new String(statusLine, StandardCharsets.US_ASCII).endsWith(" 200");
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    // A numeric field of /proc/<pid>/status, e.g. VmRSS in KiB or Threads
+    private static long status(Process process, String field) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+            if (line.startsWith(field + ":")) {
+                return Long.parseLong(line.substring(field.length() + 1).trim().split("\\s+")[0]);
+            }
+        }
+        throw new IllegalStateException("No " + field + " in /proc/" + process.pid() + "/status");
+    }
+
+    private static List<String> split(String arguments) {
+        return arguments.isBlank() ? List.of() : Arrays.asList(arguments.trim().split("\\s+"));
+    }
+}
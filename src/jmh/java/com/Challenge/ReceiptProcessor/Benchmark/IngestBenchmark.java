@@ -0,0 +1,88 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.ReceiptProcessorApplication;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptRepository;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.ReceiptService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Save and lookup through the service, ReceiptStore and ReceiptRepository against the in-memory H2 database
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IngestBenchmark {
+
+    private static final int PRELOADED_RECEIPTS = 10_000;
+
+    @Param({"1", "5", "25"})
+    private int itemCount;
+
+    private ConfigurableApplicationContext context;
+    private ReceiptService receiptService;
+    private ReceiptRepository receiptRepository;
+    private ReceiptStore receiptStore;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReceiptProcessorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmarkdb;DB_CLOSE_DELAY=-1",
+                        // Measure the database path rather than the points cache
+                        "receipt.points-cache.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        receiptService = context.getBean(ReceiptService.class);
+        receiptRepository = context.getBean(ReceiptRepository.class);
+        receiptStore = context.getBean(ReceiptStore.class);
+
+        Random random = new Random(42);
+        ids = new UUID[PRELOADED_RECEIPTS];
+        for (int i = 0; i < PRELOADED_RECEIPTS; i++) {
+            ids[i] = receiptService.processReceipt(SyntheticReceipts.receipt(random, itemCount, 16));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Random random = new Random();
+        int next;
+    }
+
+    // A fresh entity is needed per call since a saved receipt is managed and keeps its ID
+    @Benchmark
+    public UUID processReceipt(ThreadState state) {
+        return receiptService.processReceipt(SyntheticReceipts.receipt(state.random, itemCount, 16));
+    }
+
+    // Store write alone, without validation or scoring
+    @Benchmark
+    public UUID storeSave(ThreadState state) {
+        Receipt receipt = SyntheticReceipts.receipt(state.random, itemCount, 16);
+        receipt.setId(UUID.randomUUID());
+        return receiptStore.save(receipt);
+    }
+
+    @Benchmark
+    public Integer lookupPoints(ThreadState state) {
+        UUID id = ids[(state.next++ & Integer.MAX_VALUE) % ids.length];
+        return receiptRepository.findPointsById(id).orElseThrow();
+    }
+}
@@ -0,0 +1,235 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Drives a running instance with closed-loop clients. Each client submits realistic receipts and, for a configurable
+// share of its operations, reads the points of a receipt it submitted earlier. The run fails (exit code 1) when
+// throughput, p99 latency or error rate cross the configured thresholds, so it can guard against regressions
+public final class LoadGenerator {
+
+    // Receipt IDs each client remembers for its GETs
+    private static final int REMEMBERED_IDS = 1024;
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.baseUrl", "http://localhost:8080");
+        int concurrency = Integer.getInteger("load.concurrency", 256);
+        int warmupSeconds = Integer.getInteger("load.warmupSeconds", 5);
+        int durationSeconds = Integer.getInteger("load.durationSeconds", 30);
+        String label = System.getProperty("load.label", "run");
+        double getRatio = Double.parseDouble(System.getProperty("load.getRatio", "0.5"));
+        long seed = Long.getLong("load.seed", 0);
+
+        // Thresholds; zero disables the throughput and latency checks
+        double minThroughput = Double.parseDouble(System.getProperty("load.minThroughput", "0"));
+        double maxP99Millis = Double.parseDouble(System.getProperty("load.maxP99Millis", "0"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "1"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long deadline = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+
+        // Client workers run on virtual threads so the generator itself is never the bottleneck
+        List<Future<Worker>> futures = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(client, baseUrl, new Random(seed + i), getRatio, measureFrom, deadline);
+                futures.add(executor.submit(worker::run, worker));
+            }
+        }
+
+        Stats posts = new Stats();
+        Stats gets = new Stats();
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            posts.add(worker.posts);
+            gets.add(worker.gets);
+        }
+        Stats all = new Stats();
+        all.add(posts);
+        all.add(gets);
+
+        double throughput = all.count / (double) durationSeconds;
+        double errorRate = all.count == 0 ? 1 : all.errors / (double) all.count;
+        double p99 = all.percentile(0.99);
+
+        List<String> violations = new ArrayList<>();
+        if (minThroughput > 0 && throughput < minThroughput) {
+            violations.add(String.format(Locale.ROOT, "throughput %.1f/s is below %.1f/s", throughput, minThroughput));
+        }
+        if (maxP99Millis > 0 && p99 > maxP99Millis) {
+            violations.add(String.format(Locale.ROOT, "p99 %.3f ms is above %.3f ms", p99, maxP99Millis));
+        }
+        if (errorRate > maxErrorRate) {
+            violations.add(String.format(Locale.ROOT, "error rate %.4f is above %.4f", errorRate, maxErrorRate));
+        }
+
+        String report = String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"getRatio\":%.2f,\"durationSeconds\":%d,"
+                        + "\"requests\":%d,\"errors\":%d,\"errorRate\":%.4f,\"throughput\":%.1f,%s,"
+                        + "\"post\":{%s},\"get\":{%s},\"passed\":%b,\"violations\":[%s]}",
+                label, concurrency, getRatio, durationSeconds,
+                all.count, all.errors, errorRate, throughput, all.latencies(),
+                posts.summary(durationSeconds), gets.summary(durationSeconds),
+                violations.isEmpty(), violations.stream().map(v -> "\"" + v + "\"").reduce((a, b) -> a + "," + b).orElse(""));
+        System.out.println(report);
+
+        Path output = Path.of("target", "load-" + label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, report);
+
+        if (!violations.isEmpty()) {
+            System.err.println("Load test failed: " + String.join("; ", violations));
+            System.exit(1);
+        }
+    }
+
+    static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1_000_000.0;
+    }
+
+    // Latencies and errors for one kind of request, measured inside the window only
+    private static final class Stats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        private boolean sorted;
+
+        void record(long latencyNanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void add(Stats other) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            sorted = false;
+        }
+
+        double percentile(double percentile) {
+            if (!sorted) {
+                Arrays.sort(latencies, 0, count);
+                latencies = Arrays.copyOf(latencies, count);
+                sorted = true;
+            }
+            return LoadGenerator.percentile(latencies, percentile);
+        }
+
+        String latencies() {
+            return String.format(Locale.ROOT,
+                    "\"p50Millis\":%.3f,\"p90Millis\":%.3f,\"p99Millis\":%.3f,\"p999Millis\":%.3f,\"maxMillis\":%.3f",
+                    percentile(0.50), percentile(0.90), percentile(0.99), percentile(0.999), percentile(1.0));
+        }
+
+        String summary(int durationSeconds) {
+            return String.format(Locale.ROOT, "\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,%s",
+                    count, errors, count / (double) durationSeconds, latencies());
+        }
+    }
+
+    private static final class Worker {
+
+        private final HttpClient client;
+        private final String baseUrl;
+        private final Random random;
+        private final double getRatio;
+        private final long measureFrom;
+        private final long deadline;
+
+        private final Stats posts = new Stats();
+        private final Stats gets = new Stats();
+        private final String[] ids = new String[REMEMBERED_IDS];
+        private int idCount;
+
+        Worker(HttpClient client, String baseUrl, Random random, double getRatio, long measureFrom, long deadline) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.random = random;
+            this.getRatio = getRatio;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        void run() {
+            while (System.nanoTime() < deadline) {
+                if (idCount > 0 && random.nextDouble() < getRatio) {
+                    get(ids[random.nextInt(Math.min(idCount, REMEMBERED_IDS))]);
+                } else {
+                    String id = post(SyntheticReceipts.realisticJson(random));
+                    if (id != null) {
+                        ids[idCount++ % REMEMBERED_IDS] = id;
+                    }
+                }
+            }
+        }
+
+        private String post(String json) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/receipts/process"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+            HttpResponse<String> response = send(request, posts);
+            if (response == null || response.statusCode() != 200) {
+                return null;
+            }
+            // Response body is {"id":"<uuid>"}
+            String body = response.body();
+            int start = body.indexOf(':') + 2;
+            return body.substring(start, body.indexOf('"', start));
+        }
+
+        private void get(String id) {
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/receipts/" + id + "/points")).GET().build(), gets);
+        }
+
+        private HttpResponse<String> send(HttpRequest request, Stats stats) {
+            long start = System.nanoTime();
+            HttpResponse<String> response = null;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            } catch (IOException ex) {
+                // Counted as an error below
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            long end = System.nanoTime();
+            if (start >= measureFrom && end <= deadline) {
+                stats.record(end - start, response == null || response.statusCode() >= 400);
+            }
+            return response;
+        }
+    }
+}
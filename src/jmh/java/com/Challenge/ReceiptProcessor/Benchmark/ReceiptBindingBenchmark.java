@@ -0,0 +1,57 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Jackson binding of request payloads: straight into the entities, versus the request records plus entity build
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReceiptBindingBenchmark {
+
+    @Param({"1", "5", "25", "100"})
+    private int itemCount;
+
+    @Param({"8", "64"})
+    private int retailerLength;
+
+    private ObjectReader reader;
+    private ObjectReader requestReader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        // Same JSR-310 support as the mapper Spring Boot configures
+        JsonMapper mapper = JsonMapper.builder().findAndAddModules().build();
+        reader = mapper.readerFor(Receipt.class);
+        requestReader = mapper.readerFor(ReceiptRequest.class);
+        payload = SyntheticReceipts.json(new Random(42), itemCount, retailerLength).getBytes();
+    }
+
+    @Benchmark
+    public Receipt bind() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    @Benchmark
+    public ReceiptRequest bindRequest() throws IOException {
+        return requestReader.readValue(payload);
+    }
+
+    // What the controller path now pays before scoring: binding, one validation pass and the entity build
+    @Benchmark
+    public Receipt bindRequestAndBuild() throws IOException {
+        ReceiptRequest request = requestReader.readValue(payload);
+        return request.toReceipt();
+    }
+}
@@ -0,0 +1,51 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Scoring.RuleEngine;
+import com.Challenge.ReceiptProcessor.Service.ScoringEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Scoring alone, with no persistence or JSON binding. score measures the RuleEngine the service uses;
+// scoringEngine is the hand-written baseline it should stay close to
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoringBenchmark {
+
+    @Param({"1", "5", "25", "100"})
+    private int itemCount;
+
+    @Param({"8", "64"})
+    private int retailerLength;
+
+    private Receipt receipt;
+    private PointsBreakdown breakdown;
+    private RuleEngine ruleEngine;
+
+    @Setup
+    public void setUp() {
+        receipt = SyntheticReceipts.receipt(new Random(42), itemCount, retailerLength);
+        breakdown = new PointsBreakdown();
+        ruleEngine = new RuleEngine(List.of(), new SimpleMeterRegistry(), List.of(), 64);
+    }
+
+    @Benchmark
+    public int score() {
+        return ruleEngine.score(receipt).getTotal();
+    }
+
+    @Benchmark
+    public int scoringEngine() {
+        ScoringEngine.score(receipt, breakdown);
+        return breakdown.getTotal();
+    }
+}
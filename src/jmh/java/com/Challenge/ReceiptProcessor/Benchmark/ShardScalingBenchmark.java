@@ -0,0 +1,70 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Repository.ShardedReceiptStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Ingest throughput of the sharded store as the shard count grows, with enough writer threads to saturate one shard
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class ShardScalingBenchmark {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Param({"1", "2", "4", "8"})
+    private int shards;
+
+    private ShardedReceiptStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Fresh databases per trial, so earlier shard counts do not leave rows behind
+        store = new ShardedReceiptStore(shards, "jdbc:h2:mem:shard-bench-" + UUID.randomUUID() + "-%d;DB_CLOSE_DELAY=-1", 16, 1000);
+        store.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        store.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Random random = new Random();
+
+        Receipt next() {
+            Receipt receipt = SyntheticReceipts.receipt(random, 1 + random.nextInt(10), 16);
+            receipt.setId(UUID.randomUUID());
+            receipt.setPoints(random.nextInt(200));
+            return receipt;
+        }
+    }
+
+    // One receipt per transaction, like POST /receipts/process
+    @Benchmark
+    public UUID save(ThreadState state) {
+        return store.save(state.next());
+    }
+
+    // A batch per operation, split across shards and written in parallel, like POST /receipts/process/batch
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<UUID> saveAll(ThreadState state) {
+        List<Receipt> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(state.next());
+        }
+        return store.saveAll(batch);
+    }
+}
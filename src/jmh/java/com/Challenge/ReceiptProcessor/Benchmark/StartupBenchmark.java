@@ -0,0 +1,106 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Launches the application in a fresh JVM several times and measures how long each takes from process start until
+// a receipt submission succeeds, which is what a caller of a newly scheduled instance actually waits for
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String jar = System.getProperty("startup.jar", "target/ReceiptProcessor-0.0.1-SNAPSHOT.jar");
+        String jvmArguments = System.getProperty("startup.jvmArguments", "");
+        String appArguments = System.getProperty("startup.appArguments", "");
+        int runs = Integer.getInteger("startup.runs", 5);
+        int port = Integer.getInteger("startup.port", 18080);
+        int timeoutSeconds = Integer.getInteger("startup.timeoutSeconds", 120);
+        String label = System.getProperty("startup.label", "run");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        String json = SyntheticReceipts.json(new Random(0), 3, 12);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/receipts/process"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(split(jvmArguments));
+        command.add("-jar");
+        command.add(new File(jar).getName());
+        command.add("--server.port=" + port);
+        command.addAll(split(appArguments));
+
+        Path log = Path.of("target", "startup-" + label + ".log").toAbsolutePath();
+        Files.createDirectories(log.getParent());
+
+        double[] millis = new double[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = measure(command, new File(jar).getAbsoluteFile().getParentFile(), log, client, request,
+                    Duration.ofSeconds(timeoutSeconds).toNanos());
+            System.out.printf(Locale.ROOT, "run %d: %.1f ms%n", run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+
+        String report = String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"runs\":%d,\"minMillis\":%.1f,\"medianMillis\":%.1f,\"maxMillis\":%.1f}",
+                label, runs, millis[0], millis[runs / 2], millis[runs - 1]);
+        System.out.println(report);
+
+        Path output = Path.of("target", "startup-" + label + ".json");
+        Files.writeString(output, report);
+    }
+
+    // Time from launching the JVM to the first 200 from POST /receipts/process
+    private static double measure(List<String> command, File workingDirectory, Path log, HttpClient client,
+                                  HttpRequest request, long timeoutNanos) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                .start();
+        try {
+            while (System.nanoTime() - start < timeoutNanos) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000.0;
+                    }
+                } catch (IOException ex) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful request within the timeout, see " + log);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static List<String> split(String arguments) {
+        return arguments.isBlank() ? List.of() : Arrays.asList(arguments.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.Challenge.ReceiptProcessor.Benchmark;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Generates receipts shaped like examples/*.json, either with a chosen item count and retailer name length or with
+// the skewed shapes real traffic has: a few retailers take most receipts, baskets are mostly small with a long tail
+public final class SyntheticReceipts {
+
+    private static final String[] WORDS = {
+            "Mountain", "Dew", "12PK", "Emils", "Cheese", "Pizza", "Knorr", "Creamy", "Chicken",
+            "Doritos", "Nacho", "Klarbrunn", "FL", "OZ", "Gatorade", "Pepsi", "Milk", "Bread"
+    };
+
+    private static final String RETAILER_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789 &-";
+
+    private static final String[] NAMED_RETAILERS = {
+            "Target", "Walgreens", "Walmart Supercenter", "M&M Corner Market", "Costco Wholesale", "CVS Pharmacy",
+            "Kroger", "Trader Joe's", "Whole Foods Market", "7-Eleven", "Safeway", "Aldi", "Publix Super Markets",
+            "Home Depot", "Best Buy", "Dollar General", "Shell", "Starbucks", "H-E-B", "Meijer"
+    };
+
+    // Retailer popularity follows a Zipf distribution over this many names: the named ones, then numbered stores
+    private static final int RETAILER_COUNT = 1000;
+    private static final double RETAILER_SKEW = 1.1;
+    private static final double[] RETAILER_CUMULATIVE = zipfCumulative(RETAILER_COUNT, RETAILER_SKEW);
+
+    // Share of receipts per purchase hour, busiest around lunch and in the late afternoon
+    private static final double[] HOUR_CUMULATIVE = cumulative(new double[]{
+            1, 1, 1, 1, 1, 2, 4, 8, 12, 16, 20, 26, 30, 26, 24, 26, 30, 34, 30, 22, 14, 8, 4, 2});
+
+    private SyntheticReceipts() {
+    }
+
+    public static Receipt receipt(Random random, int itemCount, int retailerLength) {
+        List<Item> items = new ArrayList<>(itemCount);
+        long totalCents = 0;
+        for (int i = 0; i < itemCount; i++) {
+            long priceCents = 1 + random.nextInt(5_000);
+            totalCents += priceCents;
+            items.add(new Item(null, description(random), BigDecimal.valueOf(priceCents, 2), null));
+        }
+
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(retailer(random, retailerLength));
+        receipt.setPurchaseDate(purchaseDate(random));
+        receipt.setPurchaseTime(purchaseTime(random));
+        receipt.setTotal(BigDecimal.valueOf(totalCents, 2));
+        receipt.setItems(items);
+        return receipt;
+    }
+
+    // The same receipt shape as a JSON payload, with amounts as two-decimal strings per api.yml
+    public static String json(Random random, int itemCount, int retailerLength) {
+        StringBuilder json = new StringBuilder(128 + itemCount * 64);
+        long totalCents = 0;
+        StringBuilder items = new StringBuilder(itemCount * 64);
+        for (int i = 0; i < itemCount; i++) {
+            long priceCents = 1 + random.nextInt(5_000);
+            totalCents += priceCents;
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"shortDescription\": \"").append(description(random))
+                    .append("\", \"price\": \"").append(BigDecimal.valueOf(priceCents, 2)).append("\"}");
+        }
+        json.append("{\"retailer\": \"").append(retailer(random, retailerLength))
+                .append("\", \"purchaseDate\": \"").append(purchaseDate(random))
+                .append("\", \"purchaseTime\": \"").append(purchaseTime(random))
+                .append("\", \"total\": \"").append(BigDecimal.valueOf(totalCents, 2))
+                .append("\", \"items\": [").append(items).append("]}");
+        return json.toString();
+    }
+
+    // A receipt payload drawn from the realistic distributions: Zipf retailers, log-normal basket sizes and prices,
+    // some round and quarter-dollar totals, and purchase hours weighted towards the day
+    public static String realisticJson(Random random) {
+        int itemCount = (int) Math.max(1, Math.min(60, Math.round(logNormal(random, 4, 0.8))));
+        StringBuilder items = new StringBuilder(itemCount * 64);
+        long totalCents = 0;
+        for (int i = 0; i < itemCount; i++) {
+            long priceCents = Math.max(1, Math.min(50_000, Math.round(logNormal(random, 499, 1.0))));
+            double shape = random.nextDouble();
+            if (shape < 0.10) {
+                priceCents = Math.max(100, priceCents / 100 * 100);
+            } else if (shape < 0.25) {
+                priceCents = Math.max(25, priceCents / 25 * 25);
+            }
+            totalCents += priceCents;
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"shortDescription\": \"").append(description(random))
+                    .append("\", \"price\": \"").append(BigDecimal.valueOf(priceCents, 2)).append("\"}");
+        }
+        LocalTime time = LocalTime.of(sample(random, HOUR_CUMULATIVE), random.nextInt(60));
+        return "{\"retailer\": \"" + realisticRetailer(random)
+                + "\", \"purchaseDate\": \"" + purchaseDate(random)
+                + "\", \"purchaseTime\": \"" + time
+                + "\", \"total\": \"" + BigDecimal.valueOf(totalCents, 2)
+                + "\", \"items\": [" + items + "]}";
+    }
+
+    static String realisticRetailer(Random random) {
+        int rank = sample(random, RETAILER_CUMULATIVE);
+        return rank < NAMED_RETAILERS.length ? NAMED_RETAILERS[rank] : "Corner Store #" + rank;
+    }
+
+    // Log-normal with the given median, so most values sit near it and a few are several times larger
+    private static double logNormal(Random random, double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    // Index drawn with the probabilities whose running sum is given
+    private static int sample(Random random, double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    private static double[] zipfCumulative(int count, double skew) {
+        double[] weights = new double[count];
+        for (int rank = 0; rank < count; rank++) {
+            weights[rank] = 1 / Math.pow(rank + 1, skew);
+        }
+        return cumulative(weights);
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    static String retailer(Random random, int length) {
+        StringBuilder retailer = new StringBuilder(length);
+        retailer.append('R');
+        while (retailer.length() < length) {
+            retailer.append(RETAILER_CHARACTERS.charAt(random.nextInt(RETAILER_CHARACTERS.length())));
+        }
+        return retailer.toString();
+    }
+
+    static String description(Random random) {
+        int words = 1 + random.nextInt(3);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return description.toString();
+    }
+
+    static LocalDate purchaseDate(Random random) {
+        return LocalDate.of(2022, 1, 1).plusDays(random.nextInt(365));
+    }
+
+    static LocalTime purchaseTime(Random random) {
+        return LocalTime.of(random.nextInt(24), random.nextInt(60));
+    }
+}
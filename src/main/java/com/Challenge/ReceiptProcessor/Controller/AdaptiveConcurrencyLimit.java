@@ -0,0 +1,63 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Concurrency limit that adapts to observed latency (AIMD): each fast response while the limit is in use raises it
+// by one, a response slower than the target or a server error cuts it by the backoff ratio. Cuts happen at most once
+// per target interval, since responses already in flight still reflect the old limit. Lock-free, so it never pins
+// a virtual thread
+public final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger limit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    // Takes a slot, or returns false if the limit is reached; a successful acquire must be followed by release
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos, boolean failed) {
+        int inUse = inflight.getAndDecrement();
+        long now = System.nanoTime();
+        if (failed || now - startNanos > targetNanos) {
+            long last = lastDecrease.get();
+            if (now - last > targetNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (inUse * 2 >= limit.get()) {
+            // Only grow while the limit is actually being used, so an idle service does not drift to the maximum
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    public int limit() {
+        return limit.get();
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+}
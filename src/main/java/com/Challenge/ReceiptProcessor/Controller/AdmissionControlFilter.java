@@ -0,0 +1,128 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Admission control for ReceiptController. Ingest and lookups each get their own adaptive concurrency limit, so a
+// saturated write path sheds POSTs with 503 + Retry-After instead of queueing in Tomcat, while points lookups keep
+// their own capacity and stay fast. Runs before the body is read, so a rejected request costs almost nothing
+@Component
+@ConditionalOnProperty(name = "receipt.admission.enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public enum RequestClass {
+        INGEST, LOOKUP
+    }
+
+    private final Map<RequestClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, Counter> rejections = new EnumMap<>(RequestClass.class);
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(@Value("${receipt.admission.ingest.initial-limit:64}") int ingestInitialLimit,
+                                  @Value("${receipt.admission.ingest.min-limit:4}") int ingestMinLimit,
+                                  @Value("${receipt.admission.ingest.max-limit:1024}") int ingestMaxLimit,
+                                  @Value("${receipt.admission.ingest.latency-target-millis:250}") long ingestTargetMillis,
+                                  @Value("${receipt.admission.lookup.initial-limit:256}") int lookupInitialLimit,
+                                  @Value("${receipt.admission.lookup.min-limit:16}") int lookupMinLimit,
+                                  @Value("${receipt.admission.lookup.max-limit:4096}") int lookupMaxLimit,
+                                  @Value("${receipt.admission.lookup.latency-target-millis:50}") long lookupTargetMillis,
+                                  @Value("${receipt.admission.backoff-ratio:0.9}") double backoffRatio,
+                                  @Value("${receipt.admission.retry-after-seconds:1}") int retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        limits.put(RequestClass.INGEST, new AdaptiveConcurrencyLimit(ingestInitialLimit, ingestMinLimit, ingestMaxLimit,
+                Duration.ofMillis(ingestTargetMillis).toNanos(), backoffRatio));
+        limits.put(RequestClass.LOOKUP, new AdaptiveConcurrencyLimit(lookupInitialLimit, lookupMinLimit, lookupMaxLimit,
+                Duration.ofMillis(lookupTargetMillis).toNanos(), backoffRatio));
+        this.retryAfterSeconds = Integer.toString(retryAfterSeconds);
+
+        for (RequestClass requestClass : RequestClass.values()) {
+            String tag = requestClass.name().toLowerCase(Locale.ROOT);
+            AdaptiveConcurrencyLimit limit = limits.get(requestClass);
+            Gauge.builder("receipt.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .description("Current adaptive concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("receipt.admission.inflight", limit, AdaptiveConcurrencyLimit::inflight)
+                    .description("Requests currently admitted")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejections.put(requestClass, Counter.builder("receipt.admission.rejected")
+                    .description("Requests shed with 503 because the concurrency limit was reached")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request);
+        AdaptiveConcurrencyLimit limit = limits.get(requestClass);
+        if (!limit.tryAcquire()) {
+            rejections.get(requestClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.getWriter().write("The service is overloaded, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limit.release(start, failed);
+        }
+    }
+
+    public AdaptiveConcurrencyLimit limit(RequestClass requestClass) {
+        return limits.get(requestClass);
+    }
+
+    // POST /receipts/points is a read despite the method; the NDJSON import is a long-running job and is not limited
+    static RequestClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith("/receipts/")) {
+            return null;
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || path.equals("/receipts/points")) {
+            return RequestClass.LOOKUP;
+        }
+        if (HttpMethod.POST.matches(method) && path.startsWith("/receipts/process")) {
+            return RequestClass.INGEST;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import com.Challenge.ReceiptProcessor.Service.DailyTotals;
+import com.Challenge.ReceiptProcessor.Service.HourlyTotals;
+import com.Challenge.ReceiptProcessor.Service.OutOfRangeTotals;
+import com.Challenge.ReceiptProcessor.Service.PurchaseTimeAnalytics;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final PurchaseTimeAnalytics purchaseTimeAnalytics;
+
+    public AnalyticsController(PurchaseTimeAnalytics purchaseTimeAnalytics) {
+        this.purchaseTimeAnalytics = purchaseTimeAnalytics;
+    }
+
+    // Endpoint to get receipts and points per purchase date in a date range
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyTotals>> getDaily(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(purchaseTimeAnalytics.daily(from, to));
+    }
+
+    // Endpoint to get receipts and points per hour of the day over a date range
+    @GetMapping("/hourly")
+    public ResponseEntity<List<HourlyTotals>> getHourly(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(purchaseTimeAnalytics.hourly(from, to));
+    }
+
+    // Endpoint to get the receipts left out of the daily and hourly totals for a purchase year outside the tracked window
+    @GetMapping("/out-of-range")
+    public ResponseEntity<OutOfRangeTotals> getOutOfRange() {
+        return ResponseEntity.ok(purchaseTimeAnalytics.outOfRange());
+    }
+}
@@ -0,0 +1,56 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Service.ReceiptMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+// Times JSON binding of receipt request bodies, which happens before the controller method runs
+@ControllerAdvice(assignableTypes = ReceiptController.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ReceiptBindingMetricsAdvice extends RequestBodyAdviceAdapter {
+
+    private static final String BIND_START = ReceiptBindingMetricsAdvice.class.getName() + ".start";
+    private static final ResolvableType REQUEST_LIST = ResolvableType.forClassWithGenerics(List.class, ReceiptRequest.class);
+
+    private final ReceiptMetrics receiptMetrics;
+
+    public ReceiptBindingMetricsAdvice(ReceiptMetrics receiptMetrics) {
+        this.receiptMetrics = receiptMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        // Single and batch receipt bodies only; other bodies, such as the IDs of a bulk lookup, are not receipt binding
+        return targetType == ReceiptRequest.class || REQUEST_LIST.isAssignableFrom(ResolvableType.forType(targetType));
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(BIND_START, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        Object start = RequestContextHolder.currentRequestAttributes().getAttribute(BIND_START, RequestAttributes.SCOPE_REQUEST);
+        if (start instanceof Long startNanos) {
+            receiptMetrics.recordPhase(ReceiptMetrics.Phase.BIND, startNanos);
+        }
+        return body;
+    }
+}
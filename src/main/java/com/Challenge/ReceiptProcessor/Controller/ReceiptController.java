@@ -1,18 +1,24 @@
 package com.Challenge.ReceiptProcessor.Controller;
 
-import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Service.BulkPointsResult;
 import com.Challenge.ReceiptProcessor.Service.ReceiptService;
-import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 @RestController
+@Lazy(false)
 @RequestMapping("/receipts")
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ReceiptController {
 
     private final ReceiptService receiptService;
@@ -21,17 +27,36 @@ public class ReceiptController {
         this.receiptService = receiptService;
     }
 
-    // Endpoint to process receipts
+    // Endpoint to process receipts; the body is bound to an immutable request and validated in one pass
     @PostMapping("/process")
-    public ResponseEntity<Map<String, UUID>> processReceipt(@Valid @RequestBody Receipt receipt) {
-        UUID id = receiptService.processReceipt(receipt);
+    public ResponseEntity<Map<String, UUID>> processReceipt(@RequestBody ReceiptRequest request) {
+        UUID id = receiptService.processRequest(request);
         return ResponseEntity.ok(Map.of("id", id));
     }
 
+    // Endpoint to process a batch of receipts in a single transaction
+    @PostMapping("/process/batch")
+    public ResponseEntity<Map<String, List<UUID>>> processReceipts(@RequestBody List<ReceiptRequest> requests) {
+        List<UUID> ids = receiptService.processRequests(requests);
+        return ResponseEntity.ok(Map.of("ids", ids));
+    }
+
     // Endpoint to get points for a receipt
     @GetMapping("/{id}/points")
     public ResponseEntity<Map<String, Integer>> getPoints(@PathVariable UUID id) {
         int points = receiptService.getPoints(id);
         return ResponseEntity.ok(Map.of("points", points));
     }
+
+    // Endpoint to explain a receipt's points rule by rule
+    @GetMapping("/{id}/points/breakdown")
+    public ResponseEntity<PointsBreakdown> getPointsBreakdown(@PathVariable UUID id) {
+        return ResponseEntity.ok(receiptService.getPointsBreakdown(id));
+    }
+
+    // Endpoint to get points for many receipts with a single store query
+    @PostMapping("/points")
+    public ResponseEntity<BulkPointsResult> getPoints(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(receiptService.getPoints(ids));
+    }
 }
@@ -0,0 +1,29 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import com.Challenge.ReceiptProcessor.Service.ImportReport;
+import com.Challenge.ReceiptProcessor.Service.ReceiptImportService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/receipts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ReceiptImportController {
+
+    private final ReceiptImportService receiptImportService;
+
+    public ReceiptImportController(ReceiptImportService receiptImportService) {
+        this.receiptImportService = receiptImportService;
+    }
+
+    // Endpoint to bulk import newline-delimited receipts, streamed straight from the request body
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportReport> importReceipts(InputStream body) throws IOException {
+        return ResponseEntity.ok(receiptImportService.importReceipts(body));
+    }
+}
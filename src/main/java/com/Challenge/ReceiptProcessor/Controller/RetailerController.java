@@ -0,0 +1,26 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import com.Challenge.ReceiptProcessor.Service.RetailerAggregates;
+import com.Challenge.ReceiptProcessor.Service.RetailerStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/retailers")
+public class RetailerController {
+
+    private final RetailerAggregates retailerAggregates;
+
+    public RetailerController(RetailerAggregates retailerAggregates) {
+        this.retailerAggregates = retailerAggregates;
+    }
+
+    // Endpoint to get the top retailers by points, receipt count or amount spent, from totals kept at ingest
+    @GetMapping("/top")
+    public ResponseEntity<List<RetailerStats>> getTopRetailers(@RequestParam(defaultValue = "10") int limit,
+                                                               @RequestParam(defaultValue = "points") String by) {
+        return ResponseEntity.ok(retailerAggregates.top(limit, by));
+    }
+}
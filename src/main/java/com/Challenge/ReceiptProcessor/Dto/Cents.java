@@ -0,0 +1,71 @@
+package com.Challenge.ReceiptProcessor.Dto;
+
+// Parses decimal amounts straight into cents, without going through BigDecimal
+public final class Cents {
+
+    // Sentinels sit far below any real amount, so a long can carry either a value or the reason it has none
+    public static final long MISSING = Long.MIN_VALUE;
+    public static final long MALFORMED = Long.MIN_VALUE + 1;
+    public static final long TOO_PRECISE = Long.MIN_VALUE + 2;
+
+    // Keeps units * 100 well inside a long
+    private static final int MAX_UNIT_DIGITS = 15;
+
+    private Cents() {
+    }
+
+    // Accepts an optional minus sign, digits and an optional fraction; extra fraction digits must be zero
+    public static long parse(char[] buffer, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = i < end && buffer[i] == '-';
+        if (negative) {
+            i++;
+        }
+
+        long units = 0;
+        int unitDigits = 0;
+        while (i < end && isDigit(buffer[i])) {
+            if (++unitDigits > MAX_UNIT_DIGITS) {
+                return MALFORMED;
+            }
+            units = units * 10 + (buffer[i++] - '0');
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean subCent = false;
+        if (i < end && buffer[i] == '.') {
+            i++;
+            while (i < end && isDigit(buffer[i])) {
+                int digit = buffer[i++] - '0';
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + digit;
+                } else if (digit != 0) {
+                    subCent = true;
+                }
+                fractionDigits++;
+            }
+        }
+
+        if (i != end || unitDigits + fractionDigits == 0) {
+            return MALFORMED;
+        }
+        if (subCent) {
+            return TOO_PRECISE;
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+        long cents = units * 100 + fraction;
+        return negative ? -cents : cents;
+    }
+
+    public static long parse(String text) {
+        return parse(text.toCharArray(), 0, text.length());
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,5 @@
+package com.Challenge.ReceiptProcessor.Dto;
+
+// One purchased item as submitted; the price is already in cents or one of the Cents sentinels
+public record ItemRequest(String shortDescription, long priceCents) {
+}
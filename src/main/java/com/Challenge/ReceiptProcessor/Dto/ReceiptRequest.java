@@ -0,0 +1,77 @@
+package com.Challenge.ReceiptProcessor.Dto;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Immutable request body for a receipt; amounts arrive in cents and entities are only built once it is valid
+@JsonDeserialize(using = ReceiptRequestDeserializer.class)
+public record ReceiptRequest(String retailer, LocalDate purchaseDate, LocalTime purchaseTime,
+                             long totalCents, List<ItemRequest> items) {
+
+    // Checks every rule in one pass over the request and builds the entity, or reports all problems at once
+    public Receipt toReceipt() {
+        Set<String> errors = new TreeSet<>();
+        if (retailer == null || retailer.isBlank()) {
+            errors.add("Retailer name must not be blank");
+        }
+        if (purchaseDate == null) {
+            errors.add("Purchase date must not be null");
+        }
+        if (purchaseTime == null) {
+            errors.add("Purchase time must not be null");
+        }
+        addAmountError(errors, totalCents, "Total amount");
+
+        List<Item> entities = null;
+        if (items == null || items.isEmpty()) {
+            errors.add("Receipt must have at least one item");
+        } else {
+            entities = new ArrayList<>(items.size());
+            for (ItemRequest item : items) {
+                if (item == null) {
+                    errors.add("Item cannot be null");
+                } else if (addAmountError(errors, item.priceCents(), "Price of item")) {
+                    entities.add(new Item(null, item.shortDescription(), BigDecimal.valueOf(item.priceCents(), 2), null));
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new InvalidReceiptException("The receipt is invalid : " + String.join(", ", errors), List.copyOf(errors));
+        }
+
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(purchaseDate);
+        receipt.setPurchaseTime(purchaseTime);
+        receipt.setTotal(BigDecimal.valueOf(totalCents, 2));
+        receipt.setItems(entities);
+        return receipt;
+    }
+
+    // Returns true when the amount is usable, otherwise records why it is not
+    private static boolean addAmountError(Set<String> errors, long cents, String field) {
+        if (cents == Cents.MISSING) {
+            errors.add(field + " must not be null");
+        } else if (cents == Cents.MALFORMED) {
+            errors.add(field + " must be a decimal number");
+        } else if (cents == Cents.TOO_PRECISE) {
+            errors.add(field + " must have at most two decimal places");
+        } else if (cents <= 0) {
+            errors.add(field + " must be greater than zero");
+        } else {
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,168 @@
+package com.Challenge.ReceiptProcessor.Dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Reads a receipt straight off the token stream: no bean introspection, no setters, no BigDecimal
+public class ReceiptRequestDeserializer extends StdDeserializer<ReceiptRequest> {
+
+    public ReceiptRequestDeserializer() {
+        super(ReceiptRequest.class);
+    }
+
+    @Override
+    public ReceiptRequest deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        expectObject(p, "Receipt must be a JSON object");
+
+        String retailer = null;
+        LocalDate purchaseDate = null;
+        LocalTime purchaseTime = null;
+        long totalCents = Cents.MISSING;
+        List<ItemRequest> items = null;
+
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken token = p.nextToken();
+            switch (field) {
+                case "retailer" -> retailer = text(p, token, "Retailer name must be a string");
+                case "purchaseDate" -> purchaseDate = date(p, token);
+                case "purchaseTime" -> purchaseTime = time(p, token);
+                case "total" -> totalCents = cents(p, token, "Total amount must be a decimal number");
+                case "items" -> items = items(p, token);
+                default -> p.skipChildren();
+            }
+        }
+        return new ReceiptRequest(retailer, purchaseDate, purchaseTime, totalCents, items);
+    }
+
+    private static List<ItemRequest> items(JsonParser p, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw MismatchedInputException.from(p, ReceiptRequest.class, "Items must be a JSON array");
+        }
+
+        // Null entries are kept so validation can report them
+        List<ItemRequest> items = new ArrayList<>();
+        while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+            items.add(token == JsonToken.VALUE_NULL ? null : item(p));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    private static ItemRequest item(JsonParser p) throws IOException {
+        expectObject(p, "Item must be a JSON object");
+
+        String shortDescription = null;
+        long priceCents = Cents.MISSING;
+
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken token = p.nextToken();
+            switch (field) {
+                case "shortDescription" -> shortDescription = text(p, token, "Item description must be a string");
+                case "price" -> priceCents = cents(p, token, "Price of item must be a decimal number");
+                default -> p.skipChildren();
+            }
+        }
+        return new ItemRequest(shortDescription, priceCents);
+    }
+
+    // Amounts may be strings or bare numbers; either way the digits are read from the parser's own buffer.
+    // Text that is not a number at all is unreadable, like a malformed date; range and precision are left to validation
+    private static long cents(JsonParser p, JsonToken token, String message) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return Cents.MISSING;
+        }
+        long cents = Cents.MALFORMED;
+        if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            cents = Cents.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+        }
+        if (cents == Cents.MALFORMED) {
+            throw MismatchedInputException.from(p, ReceiptRequest.class, message);
+        }
+        return cents;
+    }
+
+    private static String text(JsonParser p, JsonToken token, String message) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!token.isScalarValue()) {
+            throw MismatchedInputException.from(p, ReceiptRequest.class, message);
+        }
+        return p.getText();
+    }
+
+    // Fast path for yyyy-MM-dd; anything else goes through the ISO parser
+    private static LocalDate date(JsonParser p, JsonToken token) throws IOException {
+        String text = text(p, token, "Purchase date must be a string");
+        if (text == null) {
+            return null;
+        }
+        try {
+            if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+                int year = digits(text, 0, 4);
+                int month = digits(text, 5, 7);
+                int day = digits(text, 8, 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(text);
+        } catch (DateTimeException ex) {
+            throw MismatchedInputException.from(p, ReceiptRequest.class, "Purchase date must be a valid date in yyyy-MM-dd format");
+        }
+    }
+
+    // Fast path for HH:mm; anything else goes through the ISO parser
+    private static LocalTime time(JsonParser p, JsonToken token) throws IOException {
+        String text = text(p, token, "Purchase time must be a string");
+        if (text == null) {
+            return null;
+        }
+        try {
+            if (text.length() == 5 && text.charAt(2) == ':') {
+                int hour = digits(text, 0, 2);
+                int minute = digits(text, 3, 5);
+                if (hour >= 0 && minute >= 0) {
+                    return LocalTime.of(hour, minute);
+                }
+            }
+            return LocalTime.parse(text);
+        } catch (DateTimeException ex) {
+            throw MismatchedInputException.from(p, ReceiptRequest.class, "Purchase time must be a valid time in HH:mm format");
+        }
+    }
+
+    private static void expectObject(JsonParser p, String message) throws IOException {
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            throw MismatchedInputException.from(p, ReceiptRequest.class, message);
+        }
+    }
+
+    // Returns -1 when any character in the range is not a digit
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -12,8 +12,10 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 public class Item {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch item inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = 50)
     private Long id;
 
     private String shortDescription;
@@ -0,0 +1,105 @@
+package com.Challenge.ReceiptProcessor.Entity;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary encoding of a receipt's items for the single packed_items column: a version byte, the item count as a varint,
+// then per item the price in cents as a varint and the description as a varint of (byte length + 1), 0 for null,
+// followed by its UTF-8 bytes. A typical item takes a dozen bytes instead of a row with its own key and foreign key
+public final class PackedItems {
+
+    // Upper bound on the column, about 20,000 typical items
+    public static final int MAX_BYTES = 1 << 20;
+
+    private static final byte VERSION = 1;
+
+    private PackedItems() {
+    }
+
+    public static byte[] encode(List<Item> items) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + items.size() * 24);
+        out.write(VERSION);
+        writeVarint(out, items.size());
+        for (Item item : items) {
+            writeVarint(out, item.getPrice().movePointRight(2).longValueExact());
+            String description = item.getShortDescription();
+            if (description == null) {
+                writeVarint(out, 0);
+            } else {
+                byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, bytes.length + 1L);
+                out.writeBytes(bytes);
+            }
+        }
+        if (out.size() > MAX_BYTES) {
+            throw new IllegalArgumentException("Items do not fit in " + MAX_BYTES + " bytes");
+        }
+        return out.toByteArray();
+    }
+
+    // Item entities attached to the receipt, in their original order
+    public static List<Item> decode(byte[] packed, Receipt receipt) {
+        Reader reader = new Reader(packed);
+        int count = (int) reader.varint();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal price = BigDecimal.valueOf(reader.varint(), 2);
+            int length = (int) reader.varint();
+            String description = length == 0 ? null : reader.utf8(length - 1);
+            items.add(new Item(null, description, price, receipt));
+        }
+        return items;
+    }
+
+    // Reads only the header, so callers that need the count never decode the items
+    public static int count(byte[] packed) {
+        return (int) new Reader(packed).varint();
+    }
+
+    // Unsigned LEB128: seven bits per byte, high bit set on all but the last
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values cannot be packed: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            if (bytes.length == 0 || bytes[0] != VERSION) {
+                throw new IllegalArgumentException("Unsupported packed items version");
+            }
+            this.bytes = bytes;
+            this.position = 1;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in packed items");
+        }
+
+        String utf8(int length) {
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
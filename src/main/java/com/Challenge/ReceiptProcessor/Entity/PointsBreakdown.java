@@ -0,0 +1,97 @@
+package com.Challenge.ReceiptProcessor.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Points awarded by each of the scoring rules, computed once when the receipt is processed
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsBreakdown {
+
+    // Packed form for stores that keep a fixed-width slot per receipt. One long holds the four flat-rate rules as flag
+    // bits (0-3), the number of item pairs (bits 4-31) and the retailer points (bits 32-62); the item description bonus
+    // is kept beside it as an int, and promotion points are whatever the stored total has left over
+    private static final long ROUND_TOTAL_FLAG = 1L;
+    private static final long QUARTER_TOTAL_FLAG = 1L << 1;
+    private static final long ODD_DAY_FLAG = 1L << 2;
+    private static final long PURCHASE_TIME_FLAG = 1L << 3;
+    private static final int ITEM_PAIRS_SHIFT = 4;
+    private static final long ITEM_PAIRS_MASK = (1L << 28) - 1;
+    private static final int RETAILER_SHIFT = 32;
+
+    // 1. One point for every alphanumeric character in the retailer name.
+    @Column(name = "retailer_points")
+    private int retailerPoints;
+
+    // 2. 50 points if the total is a round dollar amount with no cents.
+    @Column(name = "round_total_points")
+    private int roundTotalPoints;
+
+    // 3. 25 points if the total is a multiple of 0.25.
+    @Column(name = "quarter_total_points")
+    private int quarterTotalPoints;
+
+    // 4. 5 points for every two items on the receipt.
+    @Column(name = "item_pair_points")
+    private int itemPairPoints;
+
+    // 5. Price bonus for items whose trimmed description length is a multiple of 3.
+    @Column(name = "item_description_points")
+    private int itemDescriptionPoints;
+
+    // 6. 6 points if the day in the purchase date is odd.
+    @Column(name = "odd_day_points")
+    private int oddDayPoints;
+
+    // 7. 10 points if the time of purchase is after 2:00 pm and before 4:00 pm.
+    @Column(name = "purchase_time_points")
+    private int purchaseTimePoints;
+
+    // Points from any additional (promotional) scoring rules
+    @Column(name = "promotion_points")
+    private int promotionPoints;
+
+    public int getTotal() {
+        return retailerPoints + roundTotalPoints + quarterTotalPoints + itemPairPoints
+                + itemDescriptionPoints + oddDayPoints + purchaseTimePoints + promotionPoints;
+    }
+
+    // Rule word of the packed form; never negative
+    public long packRules() {
+        long rules = (long) retailerPoints << RETAILER_SHIFT | (long) (itemPairPoints / 5) << ITEM_PAIRS_SHIFT;
+        if (retailerPoints < 0 || itemPairPoints / 5 > ITEM_PAIRS_MASK) {
+            throw new IllegalArgumentException("Points breakdown does not fit the packed form");
+        }
+        if (roundTotalPoints != 0) {
+            rules |= ROUND_TOTAL_FLAG;
+        }
+        if (quarterTotalPoints != 0) {
+            rules |= QUARTER_TOTAL_FLAG;
+        }
+        if (oddDayPoints != 0) {
+            rules |= ODD_DAY_FLAG;
+        }
+        if (purchaseTimePoints != 0) {
+            rules |= PURCHASE_TIME_FLAG;
+        }
+        return rules;
+    }
+
+    public static PointsBreakdown unpack(long rules, int itemDescriptionPoints, int points) {
+        PointsBreakdown breakdown = new PointsBreakdown();
+        breakdown.retailerPoints = (int) (rules >>> RETAILER_SHIFT);
+        breakdown.roundTotalPoints = (rules & ROUND_TOTAL_FLAG) != 0 ? 50 : 0;
+        breakdown.quarterTotalPoints = (rules & QUARTER_TOTAL_FLAG) != 0 ? 25 : 0;
+        breakdown.itemPairPoints = (int) ((rules >>> ITEM_PAIRS_SHIFT) & ITEM_PAIRS_MASK) * 5;
+        breakdown.itemDescriptionPoints = itemDescriptionPoints;
+        breakdown.oddDayPoints = (rules & ODD_DAY_FLAG) != 0 ? 6 : 0;
+        breakdown.purchaseTimePoints = (rules & PURCHASE_TIME_FLAG) != 0 ? 10 : 0;
+        breakdown.promotionPoints = points - breakdown.getTotal();
+        return breakdown;
+    }
+}
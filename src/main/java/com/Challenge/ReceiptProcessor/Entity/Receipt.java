@@ -1,5 +1,6 @@
 package com.Challenge.ReceiptProcessor.Entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotEmpty;
@@ -8,20 +9,25 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "receipts")
+// Both retention bases are indexed, so the sweeper finds expired rows without scanning the table
+@Table(name = "receipts", indexes = {
+        @Index(name = "idx_receipts_purchase_date", columnList = "purchase_date"),
+        @Index(name = "idx_receipts_ingested_at", columnList = "ingested_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Receipt {
 
+    // Assigned by ReceiptService rather than the database, so the ID is known before the receipt is written
     @Id
-    @GeneratedValue
     private UUID id;
 
     @NotBlank(message = "Retailer name must not be blank")
@@ -41,6 +47,35 @@ public class Receipt {
     @NotEmpty(message = "Receipt must have at least one item")
     private List<Item> items;
 
+    // Points are scored once at ingest and stored with the receipt
+    @JsonIgnore
+    @Column(name = "points")
+    private Integer points;
+
+    @JsonIgnore
+    @Embedded
+    private PointsBreakdown pointsBreakdown;
+
+    // Content fingerprint, only set in deduplicating mode; the unique constraint doubles as the lookup index
+    @JsonIgnore
+    @Column(name = "fingerprint", unique = true, length = 16)
+    private byte[] fingerprint;
+
+    // Items encoded into this column instead of the items table when receipt.store.jpa.items=packed
+    @JsonIgnore
+    @Column(name = "packed_items", length = PackedItems.MAX_BYTES)
+    private byte[] packedItems;
+
+    // When the receipt was accepted; null for rows stored before it was recorded
+    @JsonIgnore
+    @Column(name = "ingested_at")
+    private Instant ingestedAt;
+
+    // Decoded from packedItems on the first getItems() call, so reads that never look at items never decode them
+    @JsonIgnore
+    @Transient
+    private List<Item> decodedItems;
+
     public UUID getId() {
         return id;
     }
@@ -82,6 +117,12 @@ public class Receipt {
     }
 
     public List<Item> getItems() {
+        if (packedItems != null) {
+            if (decodedItems == null) {
+                decodedItems = PackedItems.decode(packedItems, this);
+            }
+            return decodedItems;
+        }
         return items;
     }
 
@@ -94,4 +135,45 @@ public class Receipt {
         }
     }
 
+    public Integer getPoints() {
+        return points;
+    }
+
+    public void setPoints(Integer points) {
+        this.points = points;
+    }
+
+    public PointsBreakdown getPointsBreakdown() {
+        return pointsBreakdown;
+    }
+
+    public void setPointsBreakdown(PointsBreakdown pointsBreakdown) {
+        this.pointsBreakdown = pointsBreakdown;
+    }
+
+    public byte[] getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(byte[] fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public byte[] getPackedItems() {
+        return packedItems;
+    }
+
+    public void setPackedItems(byte[] packedItems) {
+        this.packedItems = packedItems;
+        this.decodedItems = null;
+    }
+
+    public Instant getIngestedAt() {
+        return ingestedAt;
+    }
+
+    public void setIngestedAt(Instant ingestedAt) {
+        this.ingestedAt = ingestedAt;
+    }
+
 }
@@ -0,0 +1,7 @@
+package com.Challenge.ReceiptProcessor.Exception;
+
+public class IngestUnavailableException extends RuntimeException {
+    public IngestUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.Challenge.ReceiptProcessor.Exception;
+
+import java.util.Map;
+
+public class InvalidBatchException extends RuntimeException {
+
+    // Validation message for each rejected receipt, keyed by its position in the batch
+    private final Map<Integer, String> errors;
+
+    public InvalidBatchException(Map<Integer, String> errors) {
+        super("The batch is invalid : " + errors.size() + " receipt(s) failed validation");
+        this.errors = errors;
+    }
+
+    public Map<Integer, String> getErrors() {
+        return errors;
+    }
+}
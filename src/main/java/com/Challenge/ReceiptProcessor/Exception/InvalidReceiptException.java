@@ -1,7 +1,23 @@
 package com.Challenge.ReceiptProcessor.Exception;
 
+import java.util.List;
+
 public class InvalidReceiptException extends RuntimeException {
+
+    // Individual problems, kept apart from the combined message so each can be counted on its own
+    private final List<String> reasons;
+
     public InvalidReceiptException(String message) {
         super(message);
+        this.reasons = null;
+    }
+
+    public InvalidReceiptException(String message, List<String> reasons) {
+        super(message);
+        this.reasons = List.copyOf(reasons);
+    }
+
+    public List<String> getReasons() {
+        return reasons != null ? reasons : List.of(getMessage());
     }
-}
\ No newline at end of file
+}
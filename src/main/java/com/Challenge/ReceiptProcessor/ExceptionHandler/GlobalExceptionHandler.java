@@ -1,12 +1,20 @@
 package com.Challenge.ReceiptProcessor.ExceptionHandler;
 
+import com.Challenge.ReceiptProcessor.Exception.IngestUnavailableException;
+import com.Challenge.ReceiptProcessor.Exception.InvalidBatchException;
 import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
 import com.Challenge.ReceiptProcessor.Exception.ReceiptNotFoundException;
+import com.Challenge.ReceiptProcessor.Service.ReceiptMetrics;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -15,12 +23,19 @@ import java.util.Map;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final ReceiptMetrics receiptMetrics;
+
+    public GlobalExceptionHandler(ReceiptMetrics receiptMetrics) {
+        this.receiptMetrics = receiptMetrics;
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> validationErrors = new HashMap<>();
-        ex.getBindingResult().getFieldErrors().forEach(error ->
-                validationErrors.put(error.getField(), error.getDefaultMessage())
-        );
+        ex.getBindingResult().getFieldErrors().forEach(error -> {
+            validationErrors.put(error.getField(), error.getDefaultMessage());
+            receiptMetrics.recordRejection(error.getDefaultMessage());
+        });
 
         Map<String, Object> response = new HashMap<>();
         response.put("error", "Validation Failed");
@@ -31,16 +46,58 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    // Bodies the request deserializer cannot read, such as a malformed date or broken JSON. The detail goes back to the
+    // client only; the metric gets one fixed reason because the detail can quote the offending input
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<String> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        String reason = ex.getCause() instanceof JsonMappingException mappingException
+                ? mappingException.getOriginalMessage()
+                : "Request body is not valid JSON";
+        receiptMetrics.recordRejection(ReceiptMetrics.MALFORMED_BODY);
+        return new ResponseEntity<>("The receipt is invalid : " + reason, HttpStatus.BAD_REQUEST);
+    }
+
+    // Reactive mode: the decoder reports unreadable bodies, and path variables that fail to convert, as input errors
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<String> handleServerWebInputException(ServerWebInputException ex) {
+        if (!(ex.getCause() instanceof DecodingException decodingException)) {
+            return new ResponseEntity<>(ex.getReason(), HttpStatus.BAD_REQUEST);
+        }
+        String reason = decodingException.getCause() instanceof JsonMappingException mappingException
+                ? mappingException.getOriginalMessage()
+                : "Request body is not valid JSON";
+        receiptMetrics.recordRejection(ReceiptMetrics.MALFORMED_BODY);
+        return new ResponseEntity<>("The receipt is invalid : " + reason, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(InvalidReceiptException.class)
     public ResponseEntity<String> handleInvalidReceiptException(InvalidReceiptException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidBatchException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidBatchException(InvalidBatchException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", "Validation Failed");
+        response.put("message", ex.getErrors());
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ReceiptNotFoundException.class)
     public ResponseEntity<String> handleReceiptNotFoundException(ReceiptNotFoundException ex) {
         return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(IngestUnavailableException.class)
+    public ResponseEntity<String> handleIngestUnavailableException(IngestUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleGenericException(Exception ex) {
         return new ResponseEntity<>("An unexpected error occurred: " + ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -0,0 +1,21 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+// What one retention batch deleted: the receipt IDs, how many items went with them, and each receipt's fingerprint
+// at the same index as its ID (null when it was stored without one)
+public record ExpiredReceipts(List<UUID> ids, long itemCount, List<byte[]> fingerprints) {
+
+    public static final ExpiredReceipts NONE = new ExpiredReceipts(List.of(), 0, List.of());
+
+    public ExpiredReceipts {
+        if (fingerprints.size() != ids.size()) {
+            throw new IllegalArgumentException("Expired receipts need one fingerprint slot per ID");
+        }
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+}
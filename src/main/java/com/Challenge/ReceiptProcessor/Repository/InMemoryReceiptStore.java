@@ -0,0 +1,189 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Non-JPA backend: records live in a concurrent map, skipping entity management, SQL and JDBC entirely
+@Repository
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.store.type", havingValue = "memory")
+public class InMemoryReceiptStore implements ReceiptStore {
+
+    private final ConcurrentHashMap<UUID, Stored> records = new ConcurrentHashMap<>();
+
+    // Stands in for the unique fingerprint column; ByteBuffer compares by content
+    private final ConcurrentHashMap<ByteBuffer, UUID> fingerprints = new ConcurrentHashMap<>();
+
+    // Stand in for the purchase_date and ingested_at indexes, so retention visits only expired receipts
+    private final ConcurrentSkipListSet<AgeKey> byPurchaseDay = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<AgeKey> byIngestMillis = new ConcurrentSkipListSet<>();
+
+    // A record with the fingerprint it claimed, so deleting it frees exactly that entry
+    private record Stored(ReceiptRecord record, ByteBuffer fingerprint) {
+    }
+
+    // Index entry ordered by age, then ID
+    private record AgeKey(long age, UUID id) implements Comparable<AgeKey> {
+        @Override
+        public int compareTo(AgeKey other) {
+            int byAge = Long.compare(age, other.age);
+            return byAge != 0 ? byAge : id.compareTo(other.id);
+        }
+    }
+
+    @Override
+    public UUID save(Receipt receipt) {
+        UUID id = receipt.getId();
+        ByteBuffer fingerprint = receipt.getFingerprint() == null ? null : ByteBuffer.wrap(receipt.getFingerprint());
+        if (fingerprint != null && fingerprints.putIfAbsent(fingerprint, id) != null) {
+            throw new DataIntegrityViolationException("A receipt with the same fingerprint is already stored");
+        }
+        Stored stored = new Stored(ReceiptRecord.from(id, receipt), fingerprint);
+        Stored previous = records.put(id, stored);
+        if (previous != null) {
+            unindex(previous.record());
+        }
+        index(stored.record());
+        return id;
+    }
+
+    @Override
+    public List<UUID> saveAll(List<Receipt> receipts) {
+        List<UUID> ids = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            ids.add(save(receipt));
+        }
+        return ids;
+    }
+
+    @Override
+    public Optional<Integer> findPoints(UUID id) {
+        Stored stored = records.get(id);
+        return stored == null ? Optional.empty() : Optional.of(stored.record().points());
+    }
+
+    @Override
+    public Optional<PointsBreakdown> findBreakdown(UUID id) {
+        Stored stored = records.get(id);
+        return stored == null || !stored.record().hasBreakdown()
+                ? Optional.empty()
+                : Optional.of(stored.record().breakdown());
+    }
+
+    @Override
+    public Map<UUID, Integer> findPoints(Collection<UUID> ids) {
+        Map<UUID, Integer> points = new HashMap<>(ids.size() * 2);
+        for (UUID id : ids) {
+            Stored stored = records.get(id);
+            if (stored != null) {
+                points.put(id, stored.record().points());
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public Optional<UUID> findIdByFingerprint(byte[] fingerprint) {
+        return Optional.ofNullable(fingerprints.get(ByteBuffer.wrap(fingerprint)));
+    }
+
+    @Override
+    public long count() {
+        return records.size();
+    }
+
+    @Override
+    public boolean supportsRetention() {
+        return true;
+    }
+
+    // Walks the age index from the oldest entry, so a batch touches only what it deletes. Entries are removed one at
+    // a time, never blocking writers or readers
+    @Override
+    public ExpiredReceipts deleteExpired(RetentionCutoff cutoff, int limit) {
+        ConcurrentSkipListSet<AgeKey> index = cutoff.byPurchaseDate() ? byPurchaseDay : byIngestMillis;
+        long cutoffAge = cutoff.byPurchaseDate()
+                ? cutoff.purchasedBefore().toEpochDay()
+                : cutoff.ingestedBefore().toEpochMilli();
+        List<UUID> ids = new ArrayList<>(Math.min(limit, 1024));
+        List<byte[]> deletedFingerprints = new ArrayList<>(Math.min(limit, 1024));
+        long itemCount = 0;
+        Iterator<AgeKey> iterator = index.iterator();
+        while (ids.size() < limit && iterator.hasNext()) {
+            AgeKey key = iterator.next();
+            if (key.age() >= cutoffAge) {
+                break;
+            }
+            Stored stored = records.get(key.id());
+            if (stored == null || !key.equals(ageKey(stored.record(), cutoff.byPurchaseDate()))) {
+                // The receipt was deleted or re-saved with another age since the entry was added
+                index.remove(key);
+                continue;
+            }
+            if (!records.remove(key.id(), stored)) {
+                continue;
+            }
+            ReceiptRecord record = stored.record();
+            unindex(record);
+            ByteBuffer fingerprint = stored.fingerprint();
+            if (fingerprint != null) {
+                fingerprints.remove(fingerprint, record.id());
+            }
+            ids.add(record.id());
+            deletedFingerprints.add(fingerprint == null ? null : fingerprint.array());
+            itemCount += record.itemCount();
+        }
+        return ids.isEmpty() ? ExpiredReceipts.NONE : new ExpiredReceipts(ids, itemCount, deletedFingerprints);
+    }
+
+    private void index(ReceiptRecord record) {
+        addKey(byPurchaseDay, ageKey(record, true));
+        addKey(byIngestMillis, ageKey(record, false));
+    }
+
+    private void unindex(ReceiptRecord record) {
+        removeKey(byPurchaseDay, ageKey(record, true));
+        removeKey(byIngestMillis, ageKey(record, false));
+    }
+
+    // Receipts without an ingest time never expire by it, so they have no key in that index
+    private static AgeKey ageKey(ReceiptRecord record, boolean byPurchaseDate) {
+        if (byPurchaseDate) {
+            return record.purchaseDate() == null ? null : new AgeKey(record.purchaseDate().toEpochDay(), record.id());
+        }
+        return record.ingestedAt() == null ? null : new AgeKey(record.ingestedAt().toEpochMilli(), record.id());
+    }
+
+    private static void addKey(ConcurrentSkipListSet<AgeKey> index, AgeKey key) {
+        if (key != null) {
+            index.add(key);
+        }
+    }
+
+    private static void removeKey(ConcurrentSkipListSet<AgeKey> index, AgeKey key) {
+        if (key != null) {
+            index.remove(key);
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,188 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.PackedItems;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Default backend: receipts and items as JPA entities in the configured database. With receipt.store.jpa.items=packed,
+// items are encoded into the packed_items column and each receipt is a single row insert instead of 1 + N
+@Repository
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.store.type", havingValue = "jpa", matchIfMissing = true)
+public class JpaReceiptStore implements ReceiptStore {
+
+    // Column names follow the Receipt mapping under Spring's default physical naming strategy
+    private static final String INSERT_PACKED = "insert into receipts (id, retailer, purchase_date, purchase_time, total,"
+            + " points, retailer_points, round_total_points, quarter_total_points, item_pair_points,"
+            + " item_description_points, odd_day_points, purchase_time_points, promotion_points, fingerprint, packed_items,"
+            + " ingested_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final ReceiptRepository receiptRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int lookupChunkSize;
+    private final boolean packedItems;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public JpaReceiptStore(ReceiptRepository receiptRepository,
+                           JdbcTemplate jdbcTemplate,
+                           @Value("${receipt.lookup.bulk.chunk-size:1000}") int lookupChunkSize,
+                           @Value("${receipt.store.jpa.items:table}") String itemsMapping) {
+        if (!itemsMapping.equals("table") && !itemsMapping.equals("packed")) {
+            throw new IllegalArgumentException("receipt.store.jpa.items must be table or packed");
+        }
+        this.receiptRepository = receiptRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.lookupChunkSize = lookupChunkSize;
+        this.packedItems = itemsMapping.equals("packed");
+    }
+
+    // IDs are assigned up front, so persist directly rather than letting save() merge
+    @Override
+    @Transactional
+    public UUID save(Receipt receipt) {
+        if (packedItems) {
+            insertPacked(List.of(receipt));
+        } else {
+            entityManager.persist(receipt);
+        }
+        return receipt.getId();
+    }
+
+    // Flushes the JDBC batches and detaches the receipts so bulk callers keep the persistence context small
+    @Override
+    @Transactional
+    public List<UUID> saveAll(List<Receipt> receipts) {
+        List<UUID> ids = new ArrayList<>(receipts.size());
+        if (packedItems) {
+            insertPacked(receipts);
+            for (Receipt receipt : receipts) {
+                ids.add(receipt.getId());
+            }
+            return ids;
+        }
+        for (Receipt receipt : receipts) {
+            entityManager.persist(receipt);
+            ids.add(receipt.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    // Written with JDBC rather than persist: the entity's items association would cascade into the items table,
+    // and the caller's receipt keeps its item list for scoring and caching. Runs in the JPA transaction's connection
+    private void insertPacked(List<Receipt> receipts) {
+        List<Object[]> rows = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            PointsBreakdown breakdown = receipt.getPointsBreakdown() != null ? receipt.getPointsBreakdown() : new PointsBreakdown();
+            rows.add(new Object[]{receipt.getId(), receipt.getRetailer(), receipt.getPurchaseDate(), receipt.getPurchaseTime(),
+                    receipt.getTotal(), receipt.getPoints(), breakdown.getRetailerPoints(), breakdown.getRoundTotalPoints(),
+                    breakdown.getQuarterTotalPoints(), breakdown.getItemPairPoints(), breakdown.getItemDescriptionPoints(),
+                    breakdown.getOddDayPoints(), breakdown.getPurchaseTimePoints(), breakdown.getPromotionPoints(),
+                    receipt.getFingerprint(), PackedItems.encode(receipt.getItems()), receipt.getIngestedAt()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_PACKED, rows);
+    }
+
+    @Override
+    public Optional<Integer> findPoints(UUID id) {
+        return receiptRepository.findPointsById(id);
+    }
+
+    // The breakdown columns of the receipt row, so serving it costs the same primary-key read as the points
+    @Override
+    public Optional<PointsBreakdown> findBreakdown(UUID id) {
+        return receiptRepository.findBreakdownById(id);
+    }
+
+    // One projection query per chunk of IDs, so round trips grow with chunks rather than IDs
+    @Override
+    public Map<UUID, Integer> findPoints(Collection<UUID> ids) {
+        Map<UUID, Integer> points = new HashMap<>(ids.size() * 2);
+        List<UUID> chunk = new ArrayList<>(Math.min(ids.size(), lookupChunkSize));
+        for (UUID id : ids) {
+            chunk.add(id);
+            if (chunk.size() == lookupChunkSize) {
+                collectPoints(chunk, points);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            collectPoints(chunk, points);
+        }
+        return points;
+    }
+
+    private void collectPoints(List<UUID> chunk, Map<UUID, Integer> points) {
+        for (ReceiptPoints receiptPoints : receiptRepository.findPointsByIdIn(chunk)) {
+            points.put(receiptPoints.getId(), receiptPoints.getPoints());
+        }
+    }
+
+    @Override
+    public Optional<UUID> findIdByFingerprint(byte[] fingerprint) {
+        return receiptRepository.findIdByFingerprint(fingerprint);
+    }
+
+    @Override
+    public long count() {
+        return receiptRepository.count();
+    }
+
+    @Override
+    public boolean supportsRetention() {
+        return true;
+    }
+
+    // Picks a batch through the purchase_date or ingested_at index, then removes it with two bulk deletes by primary
+    // and foreign key. Items may sit in the items table, the packed column, or both while a migration is pending
+    @Override
+    @Transactional
+    public ExpiredReceipts deleteExpired(RetentionCutoff cutoff, int limit) {
+        List<Object[]> expired = entityManager.createQuery(cutoff.byPurchaseDate()
+                        ? "select r.id, r.packedItems, r.fingerprint from Receipt r where r.purchaseDate < :cutoff"
+                        : "select r.id, r.packedItems, r.fingerprint from Receipt r where r.ingestedAt < :cutoff",
+                        Object[].class)
+                .setParameter("cutoff", cutoff.byPurchaseDate() ? cutoff.purchasedBefore() : cutoff.ingestedBefore())
+                .setMaxResults(limit)
+                .getResultList();
+        if (expired.isEmpty()) {
+            return ExpiredReceipts.NONE;
+        }
+        List<UUID> ids = new ArrayList<>(expired.size());
+        List<byte[]> fingerprints = new ArrayList<>(expired.size());
+        long itemCount = 0;
+        for (Object[] row : expired) {
+            ids.add((UUID) row[0]);
+            fingerprints.add((byte[]) row[2]);
+            if (row[1] != null) {
+                itemCount += PackedItems.count((byte[]) row[1]);
+            }
+        }
+        itemCount += entityManager.createQuery("delete from Item i where i.receipt.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.createQuery("delete from Receipt r where r.id in :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return new ExpiredReceipts(ids, itemCount, fingerprints);
+    }
+}
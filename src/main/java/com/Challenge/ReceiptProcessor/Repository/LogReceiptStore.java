@@ -0,0 +1,557 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Local durable backend: scored receipts are appended to segment files and located through memory-mapped hash indexes.
+// After a clean shutdown, startup only maps the index files, so restart time does not grow with the number of receipts
+@Repository
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.store.type", havingValue = "log")
+public class LogReceiptStore implements ReceiptStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LogReceiptStore.class);
+
+    // Record layout: int body length, int CRC32C of the body, then the body:
+    // id (2 longs), points (int), flags (byte), fingerprint (2 longs) if flagged, packed breakdown rules (long) and item
+    // description points (int) if flagged, retailer (string), epoch day (int), nano of day (long), total cents (long),
+    // item count (int), then per item description (string) and price cents (long).
+    // Strings are an int byte length, -1 for null, followed by UTF-8 bytes
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int FLAGS_AT = 16 + 4;
+    private static final byte FINGERPRINT_FLAG = 1;
+    private static final byte BREAKDOWN_FLAG = 2;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentSizeBytes;
+    private final long initialIndexCapacity;
+    private final boolean fsync;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+    private final Map<Integer, MappedByteBuffer> mappedSegments = new ConcurrentHashMap<>();
+
+    // UUID -> (segment << 32 | offset, points) and fingerprint -> UUID
+    private volatile MappedHashIndex ids;
+    private volatile MappedHashIndex fingerprints;
+
+    private FileChannel activeChannel;
+    private int activeSegment;
+    private long activePosition;
+    // Location just past the last record written to the active channel; records before it are visible in the mapping
+    private volatile long flushedLocation;
+
+    public LogReceiptStore(@Value("${receipt.store.log.directory:data/receipts}") Path directory,
+                           @Value("${receipt.store.log.segment-size-bytes:268435456}") long segmentSizeBytes,
+                           @Value("${receipt.store.log.index-initial-capacity:1048576}") long initialIndexCapacity,
+                           @Value("${receipt.store.log.fsync:false}") boolean fsync) {
+        if (segmentSizeBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("receipt.store.log.segment-size-bytes must fit in an int offset");
+        }
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+        this.initialIndexCapacity = initialIndexCapacity;
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        TreeMap<Integer, Path> segments = listSegments();
+
+        ids = MappedHashIndex.open(directory.resolve("ids.idx"));
+        fingerprints = MappedHashIndex.open(directory.resolve("fingerprints.idx"));
+        boolean mapped = ids != null && fingerprints != null && ids.isClean() && fingerprints.isClean();
+        long replayFrom = mapped ? ids.mark() : 0;
+        if (!mapped) {
+            // Missing index or unclean shutdown: pages the OS never wrote back may be lost, so rebuild from the log
+            if (ids != null) {
+                ids.close();
+            }
+            if (fingerprints != null) {
+                fingerprints.close();
+            }
+            ids = MappedHashIndex.create(directory.resolve("ids.idx"), initialIndexCapacity);
+            fingerprints = MappedHashIndex.create(directory.resolve("fingerprints.idx"), initialIndexCapacity);
+        }
+
+        // Normally nothing is past the mark after a clean shutdown; this also truncates a torn final record
+        long end = replay(segments, replayFrom);
+        activeSegment = segments.isEmpty() ? 1 : (int) (end >>> 32);
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activePosition = segments.isEmpty() ? 0 : (int) end;
+        activeChannel.position(activePosition);
+        mapActiveSegment();
+
+        ids.setMark(location(activeSegment, activePosition));
+        ids.setClean(false);
+        fingerprints.setClean(false);
+        log.info("Receipt log opened in {} ms: {} receipts, {} index ({} segments)",
+                (System.nanoTime() - start) / 1_000_000, ids.size(), mapped ? "mapped" : "rebuilt", segments.size());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (activeChannel == null) {
+                return;
+            }
+            flushWrites();
+            activeChannel.truncate(activePosition);
+            activeChannel.force(true);
+            activeChannel.close();
+            activeChannel = null;
+            ids.force();
+            fingerprints.force();
+            ids.setClean(true);
+            fingerprints.setClean(true);
+            ids.close();
+            fingerprints.close();
+            mappedSegments.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public UUID save(Receipt receipt) {
+        return saveAll(List.of(receipt)).get(0);
+    }
+
+    // One lock, one buffered write and at most one fsync for the whole list
+    @Override
+    public List<UUID> saveAll(List<Receipt> receipts) {
+        writeLock.lock();
+        try {
+            checkFingerprints(receipts);
+            List<UUID> saved = new ArrayList<>(receipts.size());
+            for (Receipt receipt : receipts) {
+                UUID id = receipt.getId();
+                long location = append(ReceiptRecord.from(id, receipt), receipt.getFingerprint());
+                index(id, location, receipt.getPoints(), receipt.getFingerprint());
+                saved.add(id);
+            }
+            flushWrites();
+            if (fsync) {
+                activeChannel.force(false);
+            }
+            ids.setMark(location(activeSegment, activePosition));
+            return saved;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to the receipt log", ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Reads the points straight out of the mapped index: no segment access, no copy into a heap buffer
+    @Override
+    public Optional<Integer> findPoints(UUID id) {
+        MappedHashIndex index = ids;
+        long slot = index.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        return slot < 0 ? Optional.empty() : Optional.of((int) index.secondValue(slot));
+    }
+
+    // Reads the packed breakdown at its fixed place near the start of the mapped record, without decoding the rest
+    @Override
+    public Optional<PointsBreakdown> findBreakdown(UUID id) {
+        MappedHashIndex index = ids;
+        long slot = index.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        long location = index.firstValue(slot);
+        int offset = (int) location;
+        ByteBuffer segment = mappedSegment((int) (location >>> 32), offset);
+        int at = offset + RECORD_HEADER_BYTES + FLAGS_AT;
+        byte flags = segment.get(at);
+        if ((flags & BREAKDOWN_FLAG) == 0) {
+            return Optional.empty();
+        }
+        at += 1 + ((flags & FINGERPRINT_FLAG) != 0 ? 16 : 0);
+        return Optional.of(PointsBreakdown.unpack(segment.getLong(at), segment.getInt(at + 8), (int) index.secondValue(slot)));
+    }
+
+    @Override
+    public Map<UUID, Integer> findPoints(Collection<UUID> idsToFind) {
+        MappedHashIndex index = ids;
+        Map<UUID, Integer> points = new HashMap<>(idsToFind.size() * 2);
+        for (UUID id : idsToFind) {
+            long slot = index.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+            if (slot >= 0) {
+                points.put(id, (int) index.secondValue(slot));
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public Optional<UUID> findIdByFingerprint(byte[] fingerprint) {
+        ByteBuffer key = ByteBuffer.wrap(fingerprint);
+        MappedHashIndex index = fingerprints;
+        long slot = index.find(key.getLong(), key.getLong());
+        return slot < 0 ? Optional.empty() : Optional.of(new UUID(index.firstValue(slot), index.secondValue(slot)));
+    }
+
+    @Override
+    public long count() {
+        return ids.size();
+    }
+
+    // Decodes the full record from a read-only mapping of its segment, so the bytes come from the page cache
+    public Optional<ReceiptRecord> findRecord(UUID id) {
+        MappedHashIndex index = ids;
+        long slot = index.find(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        if (slot < 0) {
+            return Optional.empty();
+        }
+        long location = index.firstValue(slot);
+        int segment = (int) (location >>> 32);
+        int offset = (int) location;
+        ByteBuffer record = mappedSegment(segment, offset).duplicate();
+        int length = record.getInt(offset);
+        record.position(offset + RECORD_HEADER_BYTES).limit(offset + RECORD_HEADER_BYTES + length);
+        return Optional.of(decode(record.slice()));
+    }
+
+    // Unique fingerprints, checked for the whole list before anything is written so a conflict leaves the log untouched
+    private void checkFingerprints(List<Receipt> receipts) {
+        Set<ByteBuffer> seen = null;
+        for (Receipt receipt : receipts) {
+            byte[] fingerprint = receipt.getFingerprint();
+            if (fingerprint == null) {
+                continue;
+            }
+            if (seen == null) {
+                seen = new HashSet<>();
+            }
+            if (!seen.add(ByteBuffer.wrap(fingerprint)) || findIdByFingerprint(fingerprint).isPresent()) {
+                throw new DataIntegrityViolationException("A receipt with the same fingerprint is already stored");
+            }
+        }
+    }
+
+    private long append(ReceiptRecord record, byte[] fingerprint) throws IOException {
+        ByteBuffer encoded = encode(record, fingerprint);
+        if (activePosition > 0 && activePosition + encoded.remaining() > segmentSizeBytes) {
+            roll();
+        }
+        long location = location(activeSegment, activePosition);
+        if (encoded.remaining() > writeBuffer.remaining()) {
+            flushWrites();
+        }
+        if (encoded.remaining() > writeBuffer.remaining()) {
+            writeFully(encoded);
+        } else {
+            writeBuffer.put(encoded);
+        }
+        activePosition += encoded.capacity();
+        return location;
+    }
+
+    private void index(UUID id, long location, int points, byte[] fingerprint) throws IOException {
+        if (ids.needsGrowth()) {
+            ids = ids.grow(directory.resolve("ids.idx"));
+        }
+        ids.putIfAbsent(id.getMostSignificantBits(), id.getLeastSignificantBits(), location, points);
+        if (fingerprint != null) {
+            if (fingerprints.needsGrowth()) {
+                fingerprints = fingerprints.grow(directory.resolve("fingerprints.idx"));
+            }
+            ByteBuffer key = ByteBuffer.wrap(fingerprint);
+            fingerprints.putIfAbsent(key.getLong(), key.getLong(), id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+    }
+
+    // A finished segment is trimmed to its records, so only the active segment ever has a preallocated tail
+    private void roll() throws IOException {
+        flushWrites();
+        activeChannel.truncate(activePosition);
+        activeChannel.force(true);
+        activeChannel.close();
+        activeSegment++;
+        activePosition = 0;
+        activeChannel = FileChannel.open(segmentPath(activeSegment),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapActiveSegment();
+    }
+
+    // Maps the active segment once at its full size, extending the file sparsely, so appends never force a remap.
+    // Records written through the channel show up in the shared mapping through the page cache
+    private void mapActiveSegment() throws IOException {
+        mappedSegments.put(activeSegment, activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSizeBytes));
+        flushedLocation = location(activeSegment, activePosition);
+    }
+
+    private void flushWrites() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+        flushedLocation = location(activeSegment, activePosition);
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            activeChannel.write(buffer);
+        }
+    }
+
+    // Indexes every record from the given location to the end of the log and returns the end location.
+    // A torn record at the very end is cut off; damage anywhere else means the log cannot be trusted
+    private long replay(TreeMap<Integer, Path> segments, long from) throws IOException {
+        int fromSegment = (int) (from >>> 32);
+        long end = from;
+        for (Map.Entry<Integer, Path> entry : segments.tailMap(Math.max(fromSegment, segments.isEmpty() ? 0 : segments.firstKey()), true).entrySet()) {
+            int segment = entry.getKey();
+            boolean last = segment == segments.lastKey();
+            try (FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                long position = segment == fromSegment ? (int) from : 0;
+                long size = channel.size();
+                ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+                while (position < size) {
+                    ByteBuffer body = readRecord(channel, position, size, header);
+                    if (body == null) {
+                        if (!last) {
+                            throw new IllegalStateException("Receipt log segment " + entry.getValue() + " is damaged at offset " + position);
+                        }
+                        // A zero length is the unused, preallocated tail of a segment that was active at a crash
+                        if (size - position < RECORD_HEADER_BYTES || header.getInt(0) != 0) {
+                            log.warn("Truncating torn record at offset {} of {}", position, entry.getValue());
+                        }
+                        channel.truncate(position);
+                        break;
+                    }
+                    ReceiptRecord record = decode(body);
+                    body.position(FLAGS_AT);
+                    byte[] fingerprint = null;
+                    if ((body.get() & FINGERPRINT_FLAG) != 0) {
+                        fingerprint = new byte[16];
+                        body.get(fingerprint);
+                    }
+                    index(record.id(), location(segment, position), record.points(), fingerprint);
+                    position += RECORD_HEADER_BYTES + body.capacity();
+                }
+                end = location(segment, position);
+            }
+        }
+        return end;
+    }
+
+    // Returns the checked record body, or null if the record is incomplete or fails its checksum
+    private ByteBuffer readRecord(FileChannel channel, long position, long size, ByteBuffer header) throws IOException {
+        if (size - position < RECORD_HEADER_BYTES) {
+            return null;
+        }
+        header.clear();
+        readFully(channel, header, position);
+        int length = header.getInt(0);
+        if (length <= 0 || size - position - RECORD_HEADER_BYTES < length) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(channel, body, position + RECORD_HEADER_BYTES);
+        CRC32C crc = new CRC32C();
+        crc.update(body.array(), 0, length);
+        if ((int) crc.getValue() != header.getInt(4)) {
+            return null;
+        }
+        body.clear();
+        return body;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of receipt log");
+            }
+        }
+        buffer.flip();
+    }
+
+    private MappedByteBuffer mappedSegment(int segment, int offset) {
+        // A record is indexed before saveAll flushes it, so a concurrent reader may find it still in the write buffer
+        if (location(segment, offset) >= flushedLocation) {
+            writeLock.lock();
+            try {
+                if (location(segment, offset) >= flushedLocation) {
+                    flushWrites();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not flush the receipt log", ex);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        MappedByteBuffer mapped = mappedSegments.get(segment);
+        if (mapped == null || mapped.capacity() <= offset + RECORD_HEADER_BYTES
+                || mapped.capacity() < offset + RECORD_HEADER_BYTES + mapped.getInt(offset)) {
+            // First read of a finished segment, or a single record larger than a whole segment
+            try (FileChannel channel = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not map receipt log segment " + segment, ex);
+            }
+            mappedSegments.put(segment, mapped);
+        }
+        return mapped;
+    }
+
+    private static ByteBuffer encode(ReceiptRecord record, byte[] fingerprint) {
+        byte[] retailer = utf8(record.retailer());
+        byte[][] descriptions = new byte[record.itemCount()][];
+        int length = 16 + 4 + 1 + (fingerprint == null ? 0 : 16) + (record.hasBreakdown() ? 12 : 0)
+                + 4 + length(retailer) + 4 + 8 + 8 + 4;
+        for (int i = 0; i < descriptions.length; i++) {
+            descriptions[i] = utf8(record.itemDescriptions()[i]);
+            length += 4 + length(descriptions[i]) + 8;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + length);
+        buffer.putInt(length).putInt(0);
+        buffer.putLong(record.id().getMostSignificantBits()).putLong(record.id().getLeastSignificantBits());
+        buffer.putInt(record.points());
+        buffer.put((byte) ((fingerprint == null ? 0 : FINGERPRINT_FLAG) | (record.hasBreakdown() ? BREAKDOWN_FLAG : 0)));
+        if (fingerprint != null) {
+            buffer.put(fingerprint);
+        }
+        if (record.hasBreakdown()) {
+            buffer.putLong(record.breakdownRules()).putInt(record.itemDescriptionPoints());
+        }
+        putString(buffer, retailer);
+        buffer.putInt((int) record.purchaseDate().toEpochDay());
+        buffer.putLong(record.purchaseTime().toNanoOfDay());
+        buffer.putLong(record.totalCents());
+        buffer.putInt(descriptions.length);
+        for (int i = 0; i < descriptions.length; i++) {
+            putString(buffer, descriptions[i]);
+            buffer.putLong(record.itemPriceCents()[i]);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), RECORD_HEADER_BYTES, length);
+        buffer.putInt(4, (int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static ReceiptRecord decode(ByteBuffer body) {
+        UUID id = new UUID(body.getLong(), body.getLong());
+        int points = body.getInt();
+        byte flags = body.get();
+        if ((flags & FINGERPRINT_FLAG) != 0) {
+            body.position(body.position() + 16);
+        }
+        long breakdownRules = ReceiptRecord.NO_BREAKDOWN;
+        int itemDescriptionPoints = 0;
+        if ((flags & BREAKDOWN_FLAG) != 0) {
+            breakdownRules = body.getLong();
+            itemDescriptionPoints = body.getInt();
+        }
+        String retailer = getString(body);
+        LocalDate purchaseDate = LocalDate.ofEpochDay(body.getInt());
+        LocalTime purchaseTime = LocalTime.ofNanoOfDay(body.getLong());
+        long totalCents = body.getLong();
+        int itemCount = body.getInt();
+        String[] descriptions = new String[itemCount];
+        long[] prices = new long[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            descriptions[i] = getString(body);
+            prices[i] = body.getLong();
+        }
+        return new ReceiptRecord(id, retailer, purchaseDate, purchaseTime, totalCents, descriptions, prices, points,
+                breakdownRules, itemDescriptionPoints, null);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes == null ? -1 : bytes.length);
+        if (bytes != null) {
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private TreeMap<Integer, Path> listSegments() throws IOException {
+        TreeMap<Integer, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            });
+        }
+        return segments;
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static long location(int segment, long offset) {
+        return ((long) segment << 32) | offset;
+    }
+}
@@ -0,0 +1,219 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Open-addressing hash table from 128-bit keys to 128-bit values, kept in a memory-mapped file so it survives restarts
+// without being rebuilt. One writer at a time; readers never lock. A slot is published by writing its value and low
+// key word first and its high key word last with release semantics, so a reader that sees the high word sees the rest.
+// A zero high word marks an empty slot; UUIDv4 high words always carry version bits, and a zero SHA-256 prefix is
+// a 1 in 2^64 event
+final class MappedHashIndex implements Closeable {
+
+    private static final int MAGIC = 0x52504958;
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 4096;
+    private static final int SLOT_BYTES = 32;
+    private static final long REGION_BYTES = 1L << 30;
+    private static final double MAX_LOAD = 0.7;
+
+    private static final int MAGIC_AT = 0;
+    private static final int VERSION_AT = 4;
+    private static final int CAPACITY_AT = 8;
+    private static final int SIZE_AT = 16;
+    private static final int CLEAN_AT = 24;
+    private static final int MARK_AT = 32;
+
+    // Aligned long access on direct buffers supports acquire/release ordering
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] regions;
+    private final long capacity;
+    private final long mask;
+    private volatile long size;
+
+    private MappedHashIndex(FileChannel channel, long capacity, long size) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.size = size;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+
+        long slotBytes = capacity * SLOT_BYTES;
+        int regionCount = (int) ((slotBytes + REGION_BYTES - 1) / REGION_BYTES);
+        this.regions = new MappedByteBuffer[regionCount];
+        for (int i = 0; i < regionCount; i++) {
+            long offset = i * REGION_BYTES;
+            regions[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + offset, Math.min(REGION_BYTES, slotBytes - offset));
+        }
+    }
+
+    // Creates an empty table; the file is sparse, so unused slots cost address space rather than disk
+    static MappedHashIndex create(Path path, long minimumCapacity) throws IOException {
+        long capacity = 16;
+        while (capacity < minimumCapacity) {
+            capacity <<= 1;
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        channel.write(ByteBuffer.allocate(1), HEADER_BYTES + capacity * SLOT_BYTES - 1);
+        MappedHashIndex index = new MappedHashIndex(channel, capacity, 0);
+        index.header.putInt(MAGIC_AT, MAGIC);
+        index.header.putInt(VERSION_AT, VERSION);
+        index.header.putLong(CAPACITY_AT, capacity);
+        index.header.putLong(SIZE_AT, 0);
+        index.header.putInt(CLEAN_AT, 0);
+        index.header.putLong(MARK_AT, 0);
+        return index;
+    }
+
+    // Maps an existing table, or returns null if the file is missing or not a table this version wrote
+    static MappedHashIndex open(Path path) throws IOException {
+        if (!Files.isRegularFile(path) || Files.size(path) < HEADER_BYTES) {
+            return null;
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        long capacity = header.getLong(CAPACITY_AT);
+        if (header.getInt(MAGIC_AT) != MAGIC || header.getInt(VERSION_AT) != VERSION
+                || Long.bitCount(capacity) != 1 || channel.size() != HEADER_BYTES + capacity * SLOT_BYTES) {
+            channel.close();
+            return null;
+        }
+        return new MappedHashIndex(channel, capacity, header.getLong(SIZE_AT));
+    }
+
+    // Slot holding the key, or -1
+    long find(long keyHigh, long keyLow) {
+        for (long slot = hash(keyHigh, keyLow) & mask; ; slot = (slot + 1) & mask) {
+            long high = (long) LONGS.getAcquire(region(slot), offset(slot));
+            if (high == 0) {
+                return -1;
+            }
+            if (high == keyHigh && keyLow(slot) == keyLow) {
+                return slot;
+            }
+        }
+    }
+
+    long firstValue(long slot) {
+        return (long) LONGS.get(region(slot), offset(slot) + 16);
+    }
+
+    long secondValue(long slot) {
+        return (long) LONGS.get(region(slot), offset(slot) + 24);
+    }
+
+    // Adds the key unless present; callers hold the writer lock and grow the table first when it is full
+    boolean putIfAbsent(long keyHigh, long keyLow, long firstValue, long secondValue) {
+        for (long slot = hash(keyHigh, keyLow) & mask; ; slot = (slot + 1) & mask) {
+            MappedByteBuffer region = region(slot);
+            int offset = offset(slot);
+            long high = (long) LONGS.get(region, offset);
+            if (high == 0) {
+                LONGS.set(region, offset + 16, firstValue);
+                LONGS.set(region, offset + 24, secondValue);
+                LONGS.set(region, offset + 8, keyLow);
+                LONGS.setRelease(region, offset, keyHigh);
+                size++;
+                header.putLong(SIZE_AT, size);
+                return true;
+            }
+            if (high == keyHigh && (long) LONGS.get(region, offset + 8) == keyLow) {
+                return false;
+            }
+        }
+    }
+
+    boolean needsGrowth() {
+        return size + 1 > capacity * MAX_LOAD;
+    }
+
+    // Copies every entry into a table twice the size, then moves it over this file. Readers holding this instance
+    // keep a complete view until they pick up the new one
+    MappedHashIndex grow(Path path) throws IOException {
+        Path staging = path.resolveSibling(path.getFileName() + ".grow");
+        MappedHashIndex grown = create(staging, capacity * 2);
+        for (long slot = 0; slot < capacity; slot++) {
+            long high = (long) LONGS.get(region(slot), offset(slot));
+            if (high != 0) {
+                grown.putIfAbsent(high, keyLow(slot), firstValue(slot), secondValue(slot));
+            }
+        }
+        grown.setMark(mark());
+        grown.force();
+        Files.move(staging, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel.close();
+        return grown;
+    }
+
+    long size() {
+        return size;
+    }
+
+    boolean isClean() {
+        return header.getInt(CLEAN_AT) == 1;
+    }
+
+    void setClean(boolean clean) {
+        header.putInt(CLEAN_AT, clean ? 1 : 0);
+        header.force();
+    }
+
+    // Caller-defined position up to which the table is known to be complete
+    long mark() {
+        return header.getLong(MARK_AT);
+    }
+
+    void setMark(long mark) {
+        header.putLong(MARK_AT, mark);
+    }
+
+    void force() {
+        for (MappedByteBuffer region : regions) {
+            region.force();
+        }
+        header.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long keyLow(long slot) {
+        return (long) LONGS.get(region(slot), offset(slot) + 8);
+    }
+
+    private MappedByteBuffer region(long slot) {
+        return regions[(int) ((slot * SLOT_BYTES) / REGION_BYTES)];
+    }
+
+    private int offset(long slot) {
+        return (int) ((slot * SLOT_BYTES) % REGION_BYTES);
+    }
+
+    // Murmur3 finalizer, so keys that differ only in a few bits still spread across the table
+    private static long hash(long keyHigh, long keyLow) {
+        long h = keyHigh ^ Long.rotateLeft(keyLow, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
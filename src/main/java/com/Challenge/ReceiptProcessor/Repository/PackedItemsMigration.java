@@ -0,0 +1,71 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.PackedItems;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+// Moves receipts written with the two-table mapping to the packed_items column, one chunk per transaction, deleting
+// their item rows as it goes. Receipts read correctly at every point, since getItems() prefers the packed column
+// and falls back to the items table, so the migration can run while the service takes traffic
+@Component
+@ConditionalOnProperty(name = "receipt.store.type", havingValue = "jpa", matchIfMissing = true)
+public class PackedItemsMigration {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PackedItemsMigration(PlatformTransactionManager transactionManager,
+                                @Value("${receipt.store.jpa.migration.chunk-size:500}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // Migrates every remaining table-mapped receipt and returns how many were packed
+    public long migrateAll() {
+        long migrated = 0;
+        int chunk;
+        while ((chunk = migrateChunk()) > 0) {
+            migrated += chunk;
+        }
+        return migrated;
+    }
+
+    public int migrateChunk() {
+        Integer migrated = transactionTemplate.execute(status -> {
+            List<UUID> ids = entityManager.createQuery("select r.id from Receipt r where r.packedItems is null", UUID.class)
+                    .setMaxResults(chunkSize)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            List<Receipt> receipts = entityManager.createQuery(
+                            "select distinct r from Receipt r left join fetch r.items where r.id in :ids", Receipt.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            for (Receipt receipt : receipts) {
+                receipt.setPackedItems(PackedItems.encode(receipt.getItems()));
+            }
+
+            // The bulk delete flushes the packed columns first, then drops the rows they replace
+            entityManager.createQuery("delete from Item i where i.receipt.id in :ids")
+                    .setParameter("ids", ids)
+                    .executeUpdate();
+            entityManager.flush();
+            entityManager.clear();
+            return receipts.size();
+        });
+        return migrated == null ? 0 : migrated;
+    }
+}
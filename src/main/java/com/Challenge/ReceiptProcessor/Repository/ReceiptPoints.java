@@ -0,0 +1,11 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import java.util.UUID;
+
+// Projection of a receipt's ID and stored points, so bulk lookups never load items
+public interface ReceiptPoints {
+
+    UUID getId();
+
+    Integer getPoints();
+}
@@ -0,0 +1,58 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Service.ScoringEngine;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+// Immutable, compact copy of a scored receipt, with items packed into parallel arrays instead of Item entities
+// and the points breakdown in its packed form
+public record ReceiptRecord(UUID id,
+                            String retailer,
+                            LocalDate purchaseDate,
+                            LocalTime purchaseTime,
+                            long totalCents,
+                            String[] itemDescriptions,
+                            long[] itemPriceCents,
+                            int points,
+                            long breakdownRules,
+                            int itemDescriptionPoints,
+                            Instant ingestedAt) {
+
+    // breakdownRules of a record stored before breakdowns were kept
+    public static final long NO_BREAKDOWN = -1;
+
+    public static ReceiptRecord from(UUID id, Receipt receipt) {
+        List<Item> items = receipt.getItems();
+        String[] itemDescriptions = new String[items.size()];
+        long[] itemPriceCents = new long[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            itemDescriptions[i] = item.getShortDescription();
+            itemPriceCents[i] = ScoringEngine.toCents(item.getPrice());
+        }
+        PointsBreakdown breakdown = receipt.getPointsBreakdown();
+        return new ReceiptRecord(id, receipt.getRetailer(), receipt.getPurchaseDate(), receipt.getPurchaseTime(),
+                ScoringEngine.toCents(receipt.getTotal()), itemDescriptions, itemPriceCents, receipt.getPoints(),
+                breakdown == null ? NO_BREAKDOWN : breakdown.packRules(),
+                breakdown == null ? 0 : breakdown.getItemDescriptionPoints(), receipt.getIngestedAt());
+    }
+
+    public boolean hasBreakdown() {
+        return breakdownRules != NO_BREAKDOWN;
+    }
+
+    public PointsBreakdown breakdown() {
+        return PointsBreakdown.unpack(breakdownRules, itemDescriptionPoints, points);
+    }
+
+    public int itemCount() {
+        return itemPriceCents.length;
+    }
+}
@@ -1,13 +1,34 @@
 package com.Challenge.ReceiptProcessor.Repository;
 
 
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
 import com.Challenge.ReceiptProcessor.Entity.Receipt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ReceiptRepository extends JpaRepository<Receipt, UUID> {
+
+    // Reads only the precomputed points column, so items are never loaded
+    @Query("select r.points from Receipt r where r.id = :id")
+    Optional<Integer> findPointsById(@Param("id") UUID id);
+
+    // Reads only the breakdown columns written when the receipt was scored
+    @Query("select r.pointsBreakdown from Receipt r where r.id = :id")
+    Optional<PointsBreakdown> findBreakdownById(@Param("id") UUID id);
+
+    // One IN query per call; callers chunk the IDs to bound the statement size
+    @Query("select r.id as id, r.points as points from Receipt r where r.id in :ids")
+    List<ReceiptPoints> findPointsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Served by the unique index on the fingerprint column
+    @Query("select r.id from Receipt r where r.fingerprint = :fingerprint")
+    Optional<UUID> findIdByFingerprint(@Param("fingerprint") byte[] fingerprint);
 }
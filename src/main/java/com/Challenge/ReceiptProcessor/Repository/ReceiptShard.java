@@ -0,0 +1,173 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// One independent database holding a slice of the receipts, with its own connection pool and transaction manager,
+// so writes to different shards never wait on the same engine, pool or lock
+final class ReceiptShard implements Closeable {
+
+    private static final String[] SCHEMA = {
+            "create table if not exists receipts (id uuid primary key, retailer varchar(255), purchase_date date,"
+                    + " purchase_time time, total decimal(19, 2), points int, breakdown_rules bigint,"
+                    + " item_description_points int, fingerprint binary(16) unique)",
+            "create table if not exists items (receipt_id uuid not null, item_index int not null,"
+                    + " short_description varchar(255), price decimal(19, 2), primary key (receipt_id, item_index))",
+            "alter table receipts add column if not exists ingested_at timestamp with time zone",
+            "create index if not exists idx_receipts_purchase_date on receipts (purchase_date)",
+            "create index if not exists idx_receipts_ingested_at on receipts (ingested_at)"
+    };
+
+    private static final String INSERT_RECEIPT = "insert into receipts"
+            + " (id, retailer, purchase_date, purchase_time, total, points, breakdown_rules, item_description_points,"
+            + " fingerprint, ingested_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM = "insert into items"
+            + " (receipt_id, item_index, short_description, price) values (?, ?, ?, ?)";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int lookupChunkSize;
+
+    ReceiptShard(String name, String url, int poolSize, int lookupChunkSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername("sa");
+        config.setPassword("");
+        config.setMaximumPoolSize(poolSize);
+        this.dataSource = new HikariDataSource(config);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.lookupChunkSize = lookupChunkSize;
+        for (String statement : SCHEMA) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    // Receipts and their items go in as two JDBC batches in one local transaction
+    void saveAll(List<Receipt> receipts) {
+        List<Object[]> receiptRows = new ArrayList<>(receipts.size());
+        List<Object[]> itemRows = new ArrayList<>(receipts.size() * 4);
+        for (Receipt receipt : receipts) {
+            PointsBreakdown breakdown = receipt.getPointsBreakdown();
+            receiptRows.add(new Object[]{receipt.getId(), receipt.getRetailer(), receipt.getPurchaseDate(),
+                    receipt.getPurchaseTime(), receipt.getTotal(), receipt.getPoints(),
+                    breakdown == null ? null : breakdown.packRules(),
+                    breakdown == null ? null : breakdown.getItemDescriptionPoints(), receipt.getFingerprint(),
+                    receipt.getIngestedAt()});
+            List<Item> items = receipt.getItems();
+            for (int i = 0; i < items.size(); i++) {
+                Item item = items.get(i);
+                itemRows.add(new Object[]{receipt.getId(), i, item.getShortDescription(), item.getPrice()});
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_RECEIPT, receiptRows);
+            jdbcTemplate.batchUpdate(INSERT_ITEM, itemRows);
+        });
+    }
+
+    // Removes receipts this shard committed as part of a batch that failed on another shard
+    void deleteAll(List<Receipt> receipts) {
+        List<UUID> ids = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            ids.add(receipt.getId());
+        }
+        Map<String, List<UUID>> parameters = Map.of("ids", ids);
+        transactionTemplate.executeWithoutResult(status -> {
+            namedJdbcTemplate.update("delete from items where receipt_id in (:ids)", parameters);
+            namedJdbcTemplate.update("delete from receipts where id in (:ids)", parameters);
+        });
+    }
+
+    Optional<Integer> findPoints(UUID id) {
+        List<Integer> points = jdbcTemplate.queryForList("select points from receipts where id = ?", Integer.class, id);
+        return points.isEmpty() ? Optional.empty() : Optional.of(points.get(0));
+    }
+
+    // Same single-row read as the points, with the packed breakdown alongside
+    Optional<PointsBreakdown> findBreakdown(UUID id) {
+        List<PointsBreakdown> breakdowns = jdbcTemplate.query(
+                "select breakdown_rules, item_description_points, points from receipts where id = ? and breakdown_rules is not null",
+                (resultSet, row) -> PointsBreakdown.unpack(resultSet.getLong(1), resultSet.getInt(2), resultSet.getInt(3)), id);
+        return breakdowns.isEmpty() ? Optional.empty() : Optional.of(breakdowns.get(0));
+    }
+
+    // One IN query per chunk of IDs, adding what is found to points
+    void collectPoints(Collection<UUID> ids, Map<UUID, Integer> points) {
+        List<UUID> chunk = new ArrayList<>(Math.min(ids.size(), lookupChunkSize));
+        for (UUID id : ids) {
+            chunk.add(id);
+            if (chunk.size() == lookupChunkSize) {
+                queryPoints(chunk, points);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            queryPoints(chunk, points);
+        }
+    }
+
+    private void queryPoints(List<UUID> chunk, Map<UUID, Integer> points) {
+        namedJdbcTemplate.query("select id, points from receipts where id in (:ids)", Map.of("ids", chunk),
+                resultSet -> {
+                    points.put(resultSet.getObject(1, UUID.class), resultSet.getInt(2));
+                });
+    }
+
+    Optional<UUID> findIdByFingerprint(byte[] fingerprint) {
+        List<UUID> ids = jdbcTemplate.queryForList("select id from receipts where fingerprint = ?", UUID.class, fingerprint);
+        return ids.isEmpty() ? Optional.empty() : Optional.of(ids.get(0));
+    }
+
+    // Up to limit expired receipts and their items, removed in one local transaction
+    ExpiredReceipts deleteExpired(RetentionCutoff cutoff, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<UUID> ids = new ArrayList<>();
+            List<byte[]> fingerprints = new ArrayList<>();
+            jdbcTemplate.query(cutoff.byPurchaseDate()
+                            ? "select id, fingerprint from receipts where purchase_date < ? limit ?"
+                            : "select id, fingerprint from receipts where ingested_at < ? limit ?",
+                    resultSet -> {
+                        ids.add(resultSet.getObject(1, UUID.class));
+                        fingerprints.add(resultSet.getBytes(2));
+                    },
+                    cutoff.byPurchaseDate() ? cutoff.purchasedBefore() : cutoff.ingestedBefore(), limit);
+            if (ids.isEmpty()) {
+                return ExpiredReceipts.NONE;
+            }
+            Map<String, List<UUID>> parameters = Map.of("ids", ids);
+            long itemCount = namedJdbcTemplate.update("delete from items where receipt_id in (:ids)", parameters);
+            namedJdbcTemplate.update("delete from receipts where id in (:ids)", parameters);
+            return new ExpiredReceipts(ids, itemCount, fingerprints);
+        });
+    }
+
+    long count() {
+        Long count = jdbcTemplate.queryForObject("select count(*) from receipts", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// Storage backend for scored receipts, selected with receipt.store.type
+public interface ReceiptStore {
+
+    // Store a validated and scored receipt under its already assigned ID and return that ID
+    UUID save(Receipt receipt);
+
+    // Store receipts in bulk and return their IDs in the same order
+    List<UUID> saveAll(List<Receipt> receipts);
+
+    // Points stored for the receipt, or empty if the ID is unknown
+    Optional<Integer> findPoints(UUID id);
+
+    // Points each rule awarded, as recorded when the receipt was scored; empty if the ID is unknown
+    // or the receipt was stored without a breakdown
+    Optional<PointsBreakdown> findBreakdown(UUID id);
+
+    // Points for every known ID among the given ones; unknown IDs are left out
+    Map<UUID, Integer> findPoints(Collection<UUID> ids);
+
+    // ID of the receipt stored with this content fingerprint, if any
+    Optional<UUID> findIdByFingerprint(byte[] fingerprint);
+
+    long count();
+
+    // Whether deleteExpired is implemented
+    default boolean supportsRetention() {
+        return false;
+    }
+
+    // Deletes up to limit receipts that expired under the cutoff, with their items, in one short transaction
+    default ExpiredReceipts deleteExpired(RetentionCutoff cutoff, int limit) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support retention");
+    }
+
+    // Whether calls may wait on I/O or locks; the reactive API keeps calls to such stores off its event loop
+    default boolean isBlocking() {
+        return true;
+    }
+}
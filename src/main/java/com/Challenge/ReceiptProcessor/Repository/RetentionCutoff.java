@@ -0,0 +1,35 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Age limit for stored receipts: either everything purchased before a date or everything ingested before an instant
+// has expired. Exactly one of the two is set
+public record RetentionCutoff(LocalDate purchasedBefore, Instant ingestedBefore) {
+
+    public RetentionCutoff {
+        if ((purchasedBefore == null) == (ingestedBefore == null)) {
+            throw new IllegalArgumentException("A retention cutoff needs exactly one of purchasedBefore and ingestedBefore");
+        }
+    }
+
+    public static RetentionCutoff purchasedBefore(LocalDate date) {
+        return new RetentionCutoff(date, null);
+    }
+
+    public static RetentionCutoff ingestedBefore(Instant instant) {
+        return new RetentionCutoff(null, instant);
+    }
+
+    public boolean byPurchaseDate() {
+        return purchasedBefore != null;
+    }
+
+    // Receipts without an ingest time predate it being recorded and never expire by ingest time
+    public boolean isExpired(LocalDate purchaseDate, Instant ingestedAt) {
+        if (byPurchaseDate()) {
+            return purchaseDate != null && purchaseDate.isBefore(purchasedBefore);
+        }
+        return ingestedAt != null && ingestedAt.isBefore(ingestedBefore);
+    }
+}
@@ -0,0 +1,323 @@
+package com.Challenge.ReceiptProcessor.Repository;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+// Partitioned backend: each receipt lives in one of N independent databases chosen by the hash of its ID. Point
+// lookups go straight to the owning shard; operations that span shards run on all of them in parallel.
+// A batch that spans shards commits per shard; if any shard fails, the slices other shards already committed are
+// deleted again. Fingerprints are only unique within a shard, so cross-instance deduplication relies on DedupIndex
+// rather than a single constraint
+@Repository
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.store.type", havingValue = "sharded")
+public class ShardedReceiptStore implements ReceiptStore {
+
+    private final int shardCount;
+    private final String urlPattern;
+    private final int poolSize;
+    private final int lookupChunkSize;
+
+    private ReceiptShard[] shards;
+    private ExecutorService fanOut;
+
+    public ShardedReceiptStore(@Value("${receipt.store.sharded.count:4}") int shardCount,
+                               @Value("${receipt.store.sharded.url-pattern:jdbc:h2:mem:receipts-shard-%d;DB_CLOSE_DELAY=-1}") String urlPattern,
+                               @Value("${receipt.store.sharded.pool-size:8}") int poolSize,
+                               @Value("${receipt.lookup.bulk.chunk-size:1000}") int lookupChunkSize) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("receipt.store.sharded.count must be at least 1");
+        }
+        this.shardCount = shardCount;
+        this.urlPattern = urlPattern;
+        this.poolSize = poolSize;
+        this.lookupChunkSize = lookupChunkSize;
+    }
+
+    @PostConstruct
+    public void open() {
+        shards = new ReceiptShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new ReceiptShard("receipt-shard-" + i, String.format(urlPattern, i), poolSize, lookupChunkSize);
+        }
+        // Fan-out tasks mostly wait on JDBC, so a virtual thread each is enough
+        fanOut = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    public void close() {
+        fanOut.close();
+        for (ReceiptShard shard : shards) {
+            shard.close();
+        }
+    }
+
+    // UUIDv4 hash bits are random, so shards fill evenly
+    public int shardOf(UUID id) {
+        return Math.floorMod(id.hashCode(), shardCount);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    public UUID save(Receipt receipt) {
+        shards[shardOf(receipt.getId())].saveAll(List.of(receipt));
+        return receipt.getId();
+    }
+
+    // All or nothing like the other stores: there is no transaction spanning shards, so when one shard fails the
+    // slices that committed elsewhere are deleted again before the failure is rethrown. Their IDs have not been
+    // returned to anyone yet, though a concurrent count or fingerprint lookup can see them in between
+    @Override
+    public List<UUID> saveAll(List<Receipt> receipts) {
+        List<List<Receipt>> byShard = partition(receipts, Receipt::getId);
+        List<Integer> written = new ArrayList<>();
+        List<Callable<Void>> writes = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            List<Receipt> slice = byShard.get(i);
+            if (!slice.isEmpty()) {
+                ReceiptShard shard = shards[i];
+                written.add(i);
+                writes.add(() -> {
+                    shard.saveAll(slice);
+                    return null;
+                });
+            }
+        }
+
+        List<RuntimeException> failures = runEach(writes);
+        RuntimeException failure = null;
+        for (RuntimeException shardFailure : failures) {
+            if (shardFailure != null) {
+                failure = shardFailure;
+                break;
+            }
+        }
+        if (failure != null) {
+            for (int w = 0; w < written.size(); w++) {
+                if (failures.get(w) == null) {
+                    int shard = written.get(w);
+                    try {
+                        shards[shard].deleteAll(byShard.get(shard));
+                    } catch (RuntimeException ex) {
+                        failure.addSuppressed(ex);
+                    }
+                }
+            }
+            throw failure;
+        }
+
+        List<UUID> ids = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            ids.add(receipt.getId());
+        }
+        return ids;
+    }
+
+    @Override
+    public Optional<Integer> findPoints(UUID id) {
+        return shards[shardOf(id)].findPoints(id);
+    }
+
+    @Override
+    public Optional<PointsBreakdown> findBreakdown(UUID id) {
+        return shards[shardOf(id)].findBreakdown(id);
+    }
+
+    @Override
+    public Map<UUID, Integer> findPoints(Collection<UUID> ids) {
+        List<List<UUID>> byShard = partition(ids, id -> id);
+        List<Callable<Map<UUID, Integer>>> lookups = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            List<UUID> slice = byShard.get(i);
+            if (!slice.isEmpty()) {
+                ReceiptShard shard = shards[i];
+                lookups.add(() -> {
+                    Map<UUID, Integer> points = new HashMap<>(slice.size() * 2);
+                    shard.collectPoints(slice, points);
+                    return points;
+                });
+            }
+        }
+        Map<UUID, Integer> points = new HashMap<>(ids.size() * 2);
+        for (Map<UUID, Integer> shardPoints : runAll(lookups)) {
+            points.putAll(shardPoints);
+        }
+        return points;
+    }
+
+    // The fingerprint says nothing about the owning shard, so every shard is asked at once
+    @Override
+    public Optional<UUID> findIdByFingerprint(byte[] fingerprint) {
+        List<Callable<Optional<UUID>>> lookups = new ArrayList<>(shardCount);
+        for (ReceiptShard shard : shards) {
+            lookups.add(() -> shard.findIdByFingerprint(fingerprint));
+        }
+        for (Optional<UUID> id : runAll(lookups)) {
+            if (id.isPresent()) {
+                return id;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public long count() {
+        List<Callable<Long>> counts = new ArrayList<>(shardCount);
+        for (ReceiptShard shard : shards) {
+            counts.add(shard::count);
+        }
+        long total = 0;
+        for (long count : runAll(counts)) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public boolean supportsRetention() {
+        return true;
+    }
+
+    // Shards are swept one after another, each in its own transaction, until the batch is full
+    @Override
+    public ExpiredReceipts deleteExpired(RetentionCutoff cutoff, int limit) {
+        List<UUID> ids = new ArrayList<>();
+        List<byte[]> fingerprints = new ArrayList<>();
+        long itemCount = 0;
+        for (ReceiptShard shard : shards) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ExpiredReceipts expired = shard.deleteExpired(cutoff, limit - ids.size());
+            ids.addAll(expired.ids());
+            fingerprints.addAll(expired.fingerprints());
+            itemCount += expired.itemCount();
+        }
+        return ids.isEmpty() ? ExpiredReceipts.NONE : new ExpiredReceipts(ids, itemCount, fingerprints);
+    }
+
+    // Counts per shard, e.g. to check the spread
+    public long[] countByShard() {
+        long[] counts = new long[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            counts[i] = shards[i].count();
+        }
+        return counts;
+    }
+
+    private <T> List<List<T>> partition(Collection<T> values, Function<T, UUID> key) {
+        List<List<T>> byShard = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (T value : values) {
+            byShard.get(shardOf(key.apply(value))).add(value);
+        }
+        return byShard;
+    }
+
+    // Like runAll, but waits for every task and returns each one's failure, or null where it succeeded, so the caller
+    // knows exactly which shards did their part
+    private List<RuntimeException> runEach(List<Callable<Void>> tasks) {
+        List<RuntimeException> failures = new ArrayList<>(tasks.size());
+        if (tasks.size() == 1) {
+            failures.add(call(tasks.get(0)));
+            return failures;
+        }
+        List<Future<RuntimeException>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Void> task : tasks) {
+            futures.add(fanOut.submit(() -> call(task)));
+        }
+        // An interrupt must not stop the wait: a write still running may yet commit and would then never be undone
+        boolean interrupted = false;
+        for (Future<RuntimeException> future : futures) {
+            while (true) {
+                try {
+                    failures.add(future.get());
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                } catch (ExecutionException ex) {
+                    failures.add(new IllegalStateException(ex.getCause()));
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failures;
+    }
+
+    private static RuntimeException call(Callable<Void> task) {
+        try {
+            task.call();
+            return null;
+        } catch (RuntimeException ex) {
+            return ex;
+        } catch (Exception ex) {
+            return new IllegalStateException(ex);
+        }
+    }
+
+    // A single task runs on the calling thread; otherwise all run in parallel and the first failure is rethrown
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (tasks.size() == 1) {
+                results.add(tasks.get(0).call());
+                return results;
+            }
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(fanOut.submit(task));
+            }
+            RuntimeException failure = null;
+            for (Future<T> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException ex) {
+                    if (failure == null) {
+                        failure = ex.getCause() instanceof RuntimeException runtime
+                                ? runtime
+                                : new IllegalStateException(ex.getCause());
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shards", ex);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
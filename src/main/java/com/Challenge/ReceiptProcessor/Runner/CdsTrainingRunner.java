@@ -0,0 +1,73 @@
+package com.Challenge.ReceiptProcessor.Runner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// CDS training mode: java -XX:ArchiveClassesAtExit=application.jsa -jar app.jar --server.port=0 --cds-training
+// Sends a receipt through the running server and reads its points back, so the archive holds the classes the first
+// real request loads (HTTP parsing, JSON binding, scoring, the store), then shuts the application down
+@Component
+public class CdsTrainingRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CdsTrainingRunner.class);
+
+    // The "Target" example from the API specification
+    private static final String RECEIPT = """
+            {"retailer":"Target","purchaseDate":"2022-01-01","purchaseTime":"13:01","total":"35.35","items":[\
+            {"shortDescription":"Mountain Dew 12PK","price":"6.49"},\
+            {"shortDescription":"Emils Cheese Pizza","price":"12.25"},\
+            {"shortDescription":"Knorr Creamy Chicken","price":"1.26"},\
+            {"shortDescription":"Doritos Nacho Cheese","price":"3.35"},\
+            {"shortDescription":"   Klarbrunn 12-PK 12 FL OZ  ","price":"12.00"}]}""";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final ConfigurableApplicationContext context;
+    private final Environment environment;
+
+    public CdsTrainingRunner(ConfigurableApplicationContext context, Environment environment) {
+        this.context = context;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("cds-training")) {
+            return;
+        }
+        String baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<String> processed = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/receipts/process"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(RECEIPT))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher id = ID.matcher(processed.body());
+        if (processed.statusCode() != 200 || !id.find()) {
+            throw new IllegalStateException("Training request failed with " + processed.statusCode() + ": " + processed.body());
+        }
+        HttpResponse<String> points = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/receipts/" + id.group(1) + "/points")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (points.statusCode() != 200) {
+            throw new IllegalStateException("Training lookup failed with " + points.statusCode() + ": " + points.body());
+        }
+        log.info("CDS training requests answered, shutting down");
+
+        // The archive is written when the JVM exits
+        System.exit(SpringApplication.exit(context));
+    }
+}
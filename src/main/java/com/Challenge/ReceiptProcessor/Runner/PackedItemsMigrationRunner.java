@@ -0,0 +1,33 @@
+package com.Challenge.ReceiptProcessor.Runner;
+
+import com.Challenge.ReceiptProcessor.Repository.PackedItemsMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// Migration mode: java -jar app.jar --receipt.store.jpa.items=packed --migrate-items
+@Component
+@ConditionalOnProperty(name = "receipt.store.type", havingValue = "jpa", matchIfMissing = true)
+public class PackedItemsMigrationRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PackedItemsMigrationRunner.class);
+
+    private final PackedItemsMigration packedItemsMigration;
+
+    public PackedItemsMigrationRunner(PackedItemsMigration packedItemsMigration) {
+        this.packedItemsMigration = packedItemsMigration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("migrate-items")) {
+            return;
+        }
+        long start = System.nanoTime();
+        long migrated = packedItemsMigration.migrateAll();
+        log.info("Packed the items of {} receipts in {} ms", migrated, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,42 @@
+package com.Challenge.ReceiptProcessor.Runner;
+
+import com.Challenge.ReceiptProcessor.Service.ImportReport;
+import com.Challenge.ReceiptProcessor.Service.ReceiptImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// CLI import mode: java -jar app.jar --spring.main.web-application-type=none --import=receipts.ndjson
+@Component
+public class ReceiptImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptImportRunner.class);
+
+    private final ReceiptImportService receiptImportService;
+
+    public ReceiptImportRunner(ReceiptImportService receiptImportService) {
+        this.receiptImportService = receiptImportService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import")) {
+            return;
+        }
+        for (String file : args.getOptionValues("import")) {
+            log.info("Importing receipts from {}", file);
+            try (InputStream input = Files.newInputStream(Path.of(file))) {
+                ImportReport report = receiptImportService.importReceipts(input);
+                for (ImportReport.RejectedLine rejectedLine : report.rejectedLines()) {
+                    log.warn("Rejected line {}: {}", rejectedLine.line(), rejectedLine.error());
+                }
+            }
+        }
+    }
+}
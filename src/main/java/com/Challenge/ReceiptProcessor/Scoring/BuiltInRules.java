@@ -0,0 +1,191 @@
+package com.Challenge.ReceiptProcessor.Scoring;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Service.ScoringEngine;
+
+import java.util.List;
+
+// The seven standard point rules, each recorded in its own PointsBreakdown column
+public final class BuiltInRules {
+
+    private BuiltInRules() {
+    }
+
+    public static List<ScoringRule> all() {
+        return List.of(new RetailerName(), new RoundTotal(), new QuarterTotal(), new ItemPairs(),
+                new ItemDescription(), new OddDay(), new PurchaseTime());
+    }
+
+    // 1. One point for every alphanumeric character in the retailer name.
+    public static final class RetailerName implements ScoringRule {
+        @Override
+        public String name() {
+            return "retailer-name";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.RECEIPT;
+        }
+
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return ScoringEngine.retailerPoints(context.retailer());
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setRetailerPoints(points);
+        }
+    }
+
+    // 2. 50 points if the total is a round dollar amount with no cents.
+    public static final class RoundTotal implements ScoringRule {
+        @Override
+        public String name() {
+            return "round-total";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.RECEIPT;
+        }
+
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return ScoringEngine.roundTotalPoints(context.totalCents());
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setRoundTotalPoints(points);
+        }
+    }
+
+    // 3. 25 points if the total is a multiple of 0.25.
+    public static final class QuarterTotal implements ScoringRule {
+        @Override
+        public String name() {
+            return "quarter-total";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.RECEIPT;
+        }
+
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return ScoringEngine.quarterTotalPoints(context.totalCents());
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setQuarterTotalPoints(points);
+        }
+    }
+
+    // 4. 5 points for every two items on the receipt.
+    public static final class ItemPairs implements ScoringRule {
+        @Override
+        public String name() {
+            return "item-pairs";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.RECEIPT;
+        }
+
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return ScoringEngine.itemPairPoints(context.itemCount());
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setItemPairPoints(points);
+        }
+    }
+
+    // 5. Price bonus for items whose trimmed description length is a multiple of 3.
+    public static final class ItemDescription implements ScoringRule {
+        @Override
+        public String name() {
+            return "item-description";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.ITEM;
+        }
+
+        // Most receipts have no qualifying description, and those skip the per-item loop entirely
+        @Override
+        public boolean appliesTo(ScoringContext context) {
+            return context.anyQualifyingDescription();
+        }
+
+        // Only convert the price when the description qualifies for the bonus
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return qualifies(context, itemIndex) ? ScoringEngine.priceBonus(context.itemPriceCents(itemIndex)) : 0;
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setItemDescriptionPoints(points);
+        }
+
+        private boolean qualifies(ScoringContext context, int itemIndex) {
+            int length = context.trimmedDescriptionLength(itemIndex);
+            return length >= 0 && length % 3 == 0;
+        }
+    }
+
+    // 6. 6 points if the day in the purchase date is odd.
+    public static final class OddDay implements ScoringRule {
+        @Override
+        public String name() {
+            return "odd-day";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.RECEIPT;
+        }
+
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return ScoringEngine.oddDayPoints(context.purchaseDate());
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setOddDayPoints(points);
+        }
+    }
+
+    // 7. 10 points if the time of purchase is after 2:00 pm and before 4:00 pm.
+    public static final class PurchaseTime implements ScoringRule {
+        @Override
+        public String name() {
+            return "purchase-time";
+        }
+
+        @Override
+        public Scope scope() {
+            return Scope.RECEIPT;
+        }
+
+        @Override
+        public int score(ScoringContext context, int itemIndex) {
+            return ScoringEngine.purchaseTimePoints(context.purchaseTime());
+        }
+
+        @Override
+        public void addTo(PointsBreakdown breakdown, int points) {
+            breakdown.setPurchaseTimePoints(points);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.Challenge.ReceiptProcessor.Scoring;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compiles the active rules into flat arrays once at startup and evaluates them per receipt
+@Component
+@Lazy(false)
+public class RuleEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(RuleEngine.class);
+
+    private final ScoringRule[] rules;
+    private final boolean[] itemScoped;
+    private final LongAdder[] awardedPoints;
+    private final Timer[] timers;
+    private final int timingSampleRate;
+
+    @Autowired
+    public RuleEngine(ObjectProvider<ScoringRule> additionalRules,
+                      MeterRegistry meterRegistry,
+                      @Value("${receipt.scoring.disabled-rules:}") List<String> disabledRules,
+                      @Value("${receipt.scoring.timing-sample-rate:64}") int timingSampleRate) {
+        this(additionalRules.orderedStream().toList(), meterRegistry, disabledRules, timingSampleRate);
+    }
+
+    public RuleEngine(List<ScoringRule> additionalRules,
+                      MeterRegistry meterRegistry,
+                      List<String> disabledRules,
+                      int timingSampleRate) {
+        List<ScoringRule> active = new ArrayList<>(BuiltInRules.all());
+        active.addAll(additionalRules);
+        active.removeIf(rule -> disabledRules.contains(rule.name()));
+
+        this.rules = active.toArray(new ScoringRule[0]);
+        this.itemScoped = new boolean[rules.length];
+        this.awardedPoints = new LongAdder[rules.length];
+        this.timers = new Timer[rules.length];
+        this.timingSampleRate = Math.max(1, timingSampleRate);
+
+        for (int r = 0; r < rules.length; r++) {
+            ScoringRule rule = rules[r];
+            itemScoped[r] = rule.scope() == ScoringRule.Scope.ITEM;
+            awardedPoints[r] = new LongAdder();
+            FunctionCounter.builder("receipt.scoring.rule.points", awardedPoints[r], LongAdder::doubleValue)
+                    .description("Points awarded by the rule")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry);
+            timers[r] = Timer.builder("receipt.scoring.rule.duration")
+                    .description("Time spent evaluating the rule, sampled")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry);
+        }
+        log.info("Scoring with {} rules: {}", rules.length, active.stream().map(ScoringRule::name).toList());
+    }
+
+    // Score a validated receipt into a new breakdown. The context is allocated per call rather than kept per thread:
+    // with virtual threads every request is a new thread, so a ThreadLocal would create one per request and never reuse it
+    public PointsBreakdown score(Receipt receipt) {
+        return score(new ScoringContext(receipt));
+    }
+
+    private PointsBreakdown score(ScoringContext context) {
+        PointsBreakdown breakdown = new PointsBreakdown();
+
+        // Timing every rule on every receipt would cost more than the cheap rules themselves, so only a sample is timed
+        boolean timed = timingSampleRate == 1 || ThreadLocalRandom.current().nextInt(timingSampleRate) == 0;
+
+        for (int r = 0; r < rules.length; r++) {
+            ScoringRule rule = rules[r];
+            long start = timed ? System.nanoTime() : 0;
+
+            int points = 0;
+            if (rule.appliesTo(context)) {
+                if (itemScoped[r]) {
+                    for (int i = 0, n = context.itemCount(); i < n; i++) {
+                        points += rule.score(context, i);
+                    }
+                } else {
+                    points = rule.score(context, -1);
+                }
+            }
+
+            if (timed) {
+                timers[r].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (points != 0) {
+                rule.addTo(breakdown, points);
+                awardedPoints[r].add(points);
+            }
+        }
+        return breakdown;
+    }
+
+    public List<String> activeRules() {
+        List<String> names = new ArrayList<>(rules.length);
+        for (ScoringRule rule : rules) {
+            names.add(rule.name());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,75 @@
+package com.Challenge.ReceiptProcessor.Scoring;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Service.ScoringEngine;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// View of a validated receipt that rules read from, created per scored receipt. Amounts are converted to cents and
+// descriptions measured only when a rule asks for them, and each at most once per receipt
+public final class ScoringContext {
+
+    private final Receipt receipt;
+    private final List<Item> items;
+    private long totalCents;
+    private boolean totalConverted;
+    private boolean descriptionsChecked;
+    private boolean anyQualifyingDescription;
+
+    public ScoringContext(Receipt receipt) {
+        this.receipt = receipt;
+        this.items = receipt.getItems();
+    }
+
+    public String retailer() {
+        return receipt.getRetailer();
+    }
+
+    public long totalCents() {
+        if (!totalConverted) {
+            totalCents = ScoringEngine.toCents(receipt.getTotal());
+            totalConverted = true;
+        }
+        return totalCents;
+    }
+
+    public LocalDate purchaseDate() {
+        return receipt.getPurchaseDate();
+    }
+
+    public LocalTime purchaseTime() {
+        return receipt.getPurchaseTime();
+    }
+
+    public int itemCount() {
+        return items.size();
+    }
+
+    public String itemDescription(int itemIndex) {
+        return items.get(itemIndex).getShortDescription();
+    }
+
+    public long itemPriceCents(int itemIndex) {
+        return ScoringEngine.toCents(items.get(itemIndex).getPrice());
+    }
+
+    // Length of the description after String.trim() semantics, or -1 when there is no description
+    public int trimmedDescriptionLength(int itemIndex) {
+        String description = itemDescription(itemIndex);
+        return description == null ? -1 : ScoringEngine.trimmedLength(description);
+    }
+
+    // Whether any item's trimmed description length is a multiple of 3; the scan stops at the first one that is
+    public boolean anyQualifyingDescription() {
+        if (!descriptionsChecked) {
+            for (int i = 0, n = items.size(); i < n && !anyQualifyingDescription; i++) {
+                anyQualifyingDescription = ScoringEngine.descriptionQualifies(itemDescription(i));
+            }
+            descriptionsChecked = true;
+        }
+        return anyQualifyingDescription;
+    }
+}
@@ -0,0 +1,32 @@
+package com.Challenge.ReceiptProcessor.Scoring;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+
+// A single points rule; additional rules (e.g. promotions) are picked up as Spring beans by the RuleEngine
+public interface ScoringRule {
+
+    enum Scope {
+        // Scored once per receipt
+        RECEIPT,
+        // Scored once per item, with the item index
+        ITEM
+    }
+
+    // Stable name used for configuration (receipt.scoring.disabled-rules) and metric tags
+    String name();
+
+    Scope scope();
+
+    // Cheap precondition checked once per receipt; a rule that does not apply is skipped entirely
+    default boolean appliesTo(ScoringContext context) {
+        return true;
+    }
+
+    // Points for the receipt (itemIndex is -1) or for the item at itemIndex
+    int score(ScoringContext context, int itemIndex);
+
+    // Records the awarded points in the breakdown; additional rules count as promotion points
+    default void addTo(PointsBreakdown breakdown, int points) {
+        breakdown.setPromotionPoints(breakdown.getPromotionPoints() + points);
+    }
+}
@@ -0,0 +1,9 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Points for the receipts that were found, in request order, and the IDs that were not
+public record BulkPointsResult(Map<UUID, Integer> points, List<UUID> missing) {
+}
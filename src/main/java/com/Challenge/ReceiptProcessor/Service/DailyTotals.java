@@ -0,0 +1,7 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import java.time.LocalDate;
+
+// Receipts and points for one purchase date
+public record DailyTotals(LocalDate date, long receipts, long points) {
+}
@@ -0,0 +1,113 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Repository.ExpiredReceipts;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Maps receipt fingerprints to the ID first stored for them. Recent fingerprints, which is where client retries land,
+// are answered from memory; older ones go to the store's unique fingerprint column, an indexed point lookup.
+// Claims whose receipt is not stored yet are held apart from the bounded cache until they commit or fail: the store
+// cannot answer for them, so evicting one would let a retry store the same receipt twice
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.dedup.enabled", havingValue = "true")
+public class DedupIndex {
+
+    private final ReceiptStore receiptStore;
+    private final Cache<ReceiptFingerprint, UUID> recent;
+    // Bounded by what is in flight: the ingest queue in write-behind mode, otherwise the requests being written
+    private final ConcurrentHashMap<ReceiptFingerprint, UUID> pending = new ConcurrentHashMap<>();
+    private final Counter duplicates;
+
+    public DedupIndex(ReceiptStore receiptStore,
+                      @Value("${receipt.dedup.recent-maximum-size:100000}") long recentMaximumSize,
+                      MeterRegistry meterRegistry) {
+        this.receiptStore = receiptStore;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(recentMaximumSize)
+                .build();
+        this.duplicates = Counter.builder("receipt.dedup.duplicates")
+                .description("Submissions answered with the ID of an identical stored receipt")
+                .register(meterRegistry);
+    }
+
+    // Returns the ID of an identical receipt, or null after reserving the fingerprint for newId until commit or release.
+    // The reservation is atomic, so concurrent retries of the same receipt all get the winner's ID
+    public UUID claim(ReceiptFingerprint fingerprint, UUID newId) {
+        UUID existing = find(fingerprint);
+        if (existing == null) {
+            existing = receiptStore.findIdByFingerprint(fingerprint.toBytes()).orElse(null);
+            if (existing == null) {
+                existing = pending.putIfAbsent(fingerprint, newId);
+                // A claim that committed after the lookups above has already moved from pending to recent
+                if (existing == null) {
+                    existing = recent.getIfPresent(fingerprint);
+                    if (existing != null) {
+                        pending.remove(fingerprint, newId);
+                    }
+                }
+            } else {
+                recent.put(fingerprint, existing);
+            }
+        }
+        if (existing != null) {
+            duplicates.increment();
+        }
+        return existing;
+    }
+
+    private UUID find(ReceiptFingerprint fingerprint) {
+        UUID claimed = pending.get(fingerprint);
+        return claimed != null ? claimed : recent.getIfPresent(fingerprint);
+    }
+
+    // Marks a reservation as stored, after which the store can answer for it and the cache may evict it.
+    // It is cached before it leaves pending, so a concurrent claim always finds it in one or the other
+    public void commit(ReceiptFingerprint fingerprint, UUID id) {
+        if (id.equals(pending.get(fingerprint))) {
+            recent.put(fingerprint, id);
+            pending.remove(fingerprint, id);
+        }
+    }
+
+    // Drops a reservation whose write failed, so a retry is not answered with an ID that was never stored
+    public void release(ReceiptFingerprint fingerprint, UUID id) {
+        pending.remove(fingerprint, id);
+        recent.asMap().remove(fingerprint, id);
+    }
+
+    // Forgets fingerprints of deleted receipts, so resubmitting one stores it again instead of returning a dead ID.
+    // Each entry is removed only while it still maps to the deleted ID, never a newer claim of the same fingerprint
+    public void forget(ExpiredReceipts expired) {
+        List<UUID> ids = expired.ids();
+        List<byte[]> fingerprints = expired.fingerprints();
+        for (int i = 0; i < ids.size(); i++) {
+            byte[] fingerprint = fingerprints.get(i);
+            if (fingerprint != null) {
+                recent.asMap().remove(ReceiptFingerprint.fromBytes(fingerprint), ids.get(i));
+            }
+        }
+    }
+
+    // After a unique-constraint conflict, e.g. another instance stored the same receipt first
+    public Optional<UUID> findStored(ReceiptFingerprint fingerprint) {
+        Optional<UUID> stored = receiptStore.findIdByFingerprint(fingerprint.toBytes());
+        stored.ifPresent(id -> {
+            recent.put(fingerprint, id);
+            duplicates.increment();
+        });
+        return stored;
+    }
+}
@@ -0,0 +1,5 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+// Receipts and points for one hour of the day (0-23), summed over a date range
+public record HourlyTotals(int hour, long receipts, long points) {
+}
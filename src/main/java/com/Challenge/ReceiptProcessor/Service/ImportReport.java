@@ -0,0 +1,14 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import java.util.List;
+
+// Outcome of an NDJSON import; only the first rejections are listed so the report stays small
+public record ImportReport(long accepted,
+                           long rejected,
+                           long elapsedMillis,
+                           double receiptsPerSecond,
+                           List<RejectedLine> rejectedLines) {
+
+    public record RejectedLine(long line, String error) {
+    }
+}
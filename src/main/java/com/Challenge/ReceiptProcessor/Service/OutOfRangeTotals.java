@@ -0,0 +1,5 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+// Receipts and points left out of the purchase-time buckets because their purchase year is outside the tracked window
+public record OutOfRangeTotals(int fromYear, int toYear, long receipts, long points) {
+}
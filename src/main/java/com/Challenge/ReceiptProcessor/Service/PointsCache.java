@@ -0,0 +1,103 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded in-process cache of receipt points, evicted with Caffeine's W-TinyLFU policy
+@Component
+@Lazy(false)
+public class PointsCache {
+
+    private static final String CACHE_NAME = "receipt-points";
+
+    private final boolean enabled;
+    private final Cache<UUID, Integer> cache;
+    // Bumped before every deletion is invalidated, so a put of a value read earlier can tell it may have missed one
+    private final AtomicLong generation = new AtomicLong();
+
+    public PointsCache(@Value("${receipt.points-cache.enabled:true}") boolean enabled,
+                       @Value("${receipt.points-cache.maximum-size:100000}") long maximumSize,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+
+        // Publishes size, evictions and hit/miss counts under cache.* metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    // Returns the cached points, or null on a miss
+    public Integer get(UUID id) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.getIfPresent(id);
+    }
+
+    public void put(UUID id, int points) {
+        if (enabled) {
+            cache.put(id, points);
+        }
+    }
+
+    // Read before loading a value from the store, and passed to putIfCurrent with it
+    public long generation() {
+        return generation.get();
+    }
+
+    // Caches a value loaded from the store after generation() returned the given value. If invalidateAll ran since,
+    // it may have deleted the receipt before this put, so the entry is dropped again: one extra miss for an unrelated
+    // receipt is cheaper than serving points for a deleted one
+    public void putIfCurrent(UUID id, int points, long loadedAt) {
+        if (!enabled) {
+            return;
+        }
+        cache.put(id, points);
+        if (generation.get() != loadedAt) {
+            cache.invalidate(id);
+        }
+    }
+
+    // For a write that never reached the store, so no concurrent load can have read it
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+    }
+
+    // Drops receipts the retention sweeper deleted, so their lookups go to the store and miss
+    public void invalidateAll(Collection<UUID> ids) {
+        generation.incrementAndGet();
+        cache.invalidateAll(ids);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public double hitRatio() {
+        return cache.stats().hitRate();
+    }
+
+    public long evictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    // Runs pending maintenance such as evictions; mainly useful for tests
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+}
@@ -0,0 +1,140 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Receipt counts and points bucketed by purchase date and hour, filled as receipts are stored. Each purchase year is
+// one pair of flat arrays with a cell per day and hour, so a range query is a sequential sum over at most 24 cells
+// per day and never touches the receipt tables. Only purchase years in a window around the current year get arrays, so
+// implausible dates cannot pin memory; receipts outside it are counted in one out-of-range total instead.
+// Counts are all-time: receipts deleted by retention are still counted
+@Component
+public class PurchaseTimeAnalytics implements ReceiptIngestListener {
+
+    private static final int HOURS = 24;
+    private static final int DAYS_PER_YEAR = 366;
+
+    private final ConcurrentHashMap<Integer, Year> years = new ConcurrentHashMap<>();
+    private final LongAdder outOfRangeReceipts = new LongAdder();
+    private final LongAdder outOfRangePoints = new LongAdder();
+    private final int maxRangeDays;
+    private final int maxYearsBack;
+
+    public PurchaseTimeAnalytics(@Value("${receipt.analytics.max-range-days:3660}") int maxRangeDays,
+                                 @Value("${receipt.analytics.max-years-back:20}") int maxYearsBack) {
+        this.maxRangeDays = maxRangeDays;
+        this.maxYearsBack = maxYearsBack;
+    }
+
+    @Override
+    public void onStored(Receipt receipt) {
+        LocalDate date = receipt.getPurchaseDate();
+        if (date == null || receipt.getPurchaseTime() == null) {
+            return;
+        }
+        Year year = years.get(date.getYear());
+        if (year == null) {
+            // Receipts outside [current year - max-years-back, current year + 1] only count towards the out-of-range total
+            int currentYear = LocalDate.now().getYear();
+            if (date.getYear() < currentYear - maxYearsBack || date.getYear() > currentYear + 1) {
+                outOfRangeReceipts.increment();
+                outOfRangePoints.add(receipt.getPoints());
+                return;
+            }
+            year = years.computeIfAbsent(date.getYear(), key -> new Year());
+        }
+        int cell = cell(date, receipt.getPurchaseTime().getHour());
+        year.receipts.getAndIncrement(cell);
+        year.points.getAndAdd(cell, receipt.getPoints());
+    }
+
+    // One entry per day in [from, to], including days without receipts
+    public List<DailyTotals> daily(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<DailyTotals> days = new ArrayList<>((int) ChronoUnit.DAYS.between(from, to) + 1);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Year year = years.get(date.getYear());
+            long receipts = 0;
+            long points = 0;
+            if (year != null) {
+                int first = cell(date, 0);
+                for (int cell = first; cell < first + HOURS; cell++) {
+                    receipts += year.receipts.get(cell);
+                    points += year.points.get(cell);
+                }
+            }
+            days.add(new DailyTotals(date, receipts, points));
+        }
+        return days;
+    }
+
+    // One entry per hour of the day, summed over [from, to]
+    public List<HourlyTotals> hourly(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        long[] receipts = new long[HOURS];
+        long[] points = new long[HOURS];
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            Year year = years.get(date.getYear());
+            if (year == null) {
+                // Skip straight to the next purchase year
+                date = LocalDate.of(date.getYear(), 12, 31);
+                continue;
+            }
+            int first = cell(date, 0);
+            for (int hour = 0; hour < HOURS; hour++) {
+                receipts[hour] += year.receipts.get(first + hour);
+                points[hour] += year.points.get(first + hour);
+            }
+        }
+        List<HourlyTotals> hours = new ArrayList<>(HOURS);
+        for (int hour = 0; hour < HOURS; hour++) {
+            hours.add(new HourlyTotals(hour, receipts[hour], points[hour]));
+        }
+        return hours;
+    }
+
+    // Receipts whose purchase year is outside the tracked window, so no daily or hourly query can include them
+    public OutOfRangeTotals outOfRange() {
+        int currentYear = LocalDate.now().getYear();
+        return new OutOfRangeTotals(currentYear - maxYearsBack, currentYear + 1,
+                outOfRangeReceipts.sum(), outOfRangePoints.sum());
+    }
+
+    // Purchase years holding counters, e.g. to check memory use
+    public int trackedYears() {
+        return years.size();
+    }
+
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidReceiptException("The query is invalid : Both from and to dates are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidReceiptException("The query is invalid : From date must not be after to date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidReceiptException("The query is invalid : Range must not span more than " + maxRangeDays + " days");
+        }
+    }
+
+    private static int cell(LocalDate date, int hour) {
+        return (date.getDayOfYear() - 1) * HOURS + hour;
+    }
+
+    // 366 days x 24 hours of counters, about 140KB per purchase year that has receipts
+    private static final class Year {
+
+        private final AtomicLongArray receipts = new AtomicLongArray(DAYS_PER_YEAR * HOURS);
+        private final AtomicLongArray points = new AtomicLongArray(DAYS_PER_YEAR * HOURS);
+    }
+}
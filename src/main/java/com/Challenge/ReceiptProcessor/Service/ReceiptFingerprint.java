@@ -0,0 +1,83 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+// First 128 bits of a SHA-256 over the receipt's canonical fields; identical submissions share a fingerprint
+public record ReceiptFingerprint(long high, long low) {
+
+    private static final MessageDigest PROTOTYPE;
+
+    static {
+        try {
+            PROTOTYPE = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    // Fields are fed to the digest one at a time, each length-prefixed or fixed-width so no two receipts encode alike
+    public static ReceiptFingerprint of(Receipt receipt) {
+        MessageDigest digest = newDigest();
+        ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+        update(digest, scratch, receipt.getRetailer());
+        updateLong(digest, scratch, receipt.getPurchaseDate().toEpochDay());
+        updateLong(digest, scratch, receipt.getPurchaseTime().toNanoOfDay());
+        updateLong(digest, scratch, ScoringEngine.toCents(receipt.getTotal()));
+
+        List<Item> items = receipt.getItems();
+        updateLong(digest, scratch, items.size());
+        for (Item item : items) {
+            update(digest, scratch, item.getShortDescription());
+            updateLong(digest, scratch, ScoringEngine.toCents(item.getPrice()));
+        }
+
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+        return new ReceiptFingerprint(hash.getLong(), hash.getLong());
+    }
+
+    // Inverse of toBytes
+    public static ReceiptFingerprint fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new ReceiptFingerprint(buffer.getLong(), buffer.getLong());
+    }
+
+    // Column form of the fingerprint
+    public byte[] toBytes() {
+        return ByteBuffer.allocate(2 * Long.BYTES).putLong(high).putLong(low).array();
+    }
+
+    // Cloning a prototype skips the provider lookup getInstance does on every call
+    private static MessageDigest newDigest() {
+        try {
+            return (MessageDigest) PROTOTYPE.clone();
+        } catch (CloneNotSupportedException ex) {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException impossible) {
+                throw new IllegalStateException("SHA-256 is not available", impossible);
+            }
+        }
+    }
+
+    // A null string is marked with -1 so it differs from an empty one
+    private static void update(MessageDigest digest, ByteBuffer scratch, String value) {
+        byte[] bytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        scratch.clear();
+        digest.update(scratch.putInt(bytes == null ? -1 : bytes.length).array(), 0, Integer.BYTES);
+        if (bytes != null) {
+            digest.update(bytes);
+        }
+    }
+
+    private static void updateLong(MessageDigest digest, ByteBuffer scratch, long value) {
+        scratch.clear();
+        digest.update(scratch.putLong(value).array());
+    }
+}
@@ -0,0 +1,201 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Imports newline-delimited receipts, holding at most one line and one chunk in memory at a time
+@Service
+public class ReceiptImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReceiptImportService.class);
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${receipt.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${receipt.import.max-reported-rejections:1000}")
+    private int maxReportedRejections;
+
+    @Value("${receipt.import.progress-interval:100000}")
+    private long progressInterval;
+
+    @Value("${receipt.import.max-line-bytes:1048576}")
+    private int maxLineBytes;
+
+    public ImportReport importReceipts(InputStream input) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(ReceiptRequest.class);
+        LineReader lines = new LineReader(input, maxLineBytes);
+
+        List<Receipt> chunk = new ArrayList<>(chunkSize);
+        List<ImportReport.RejectedLine> rejectedLines = new ArrayList<>();
+        long accepted = 0;
+        long rejected = 0;
+        long lineNumber = 0;
+        long start = System.nanoTime();
+
+        while (lines.next()) {
+            lineNumber++;
+            if (lines.tooLong()) {
+                rejected++;
+                if (rejectedLines.size() < maxReportedRejections) {
+                    rejectedLines.add(new ImportReport.RejectedLine(lineNumber, "Line is longer than " + maxLineBytes + " bytes"));
+                }
+                continue;
+            }
+            if (lines.isBlank()) {
+                continue;
+            }
+
+            // Parse, validate and score each record as it arrives. Each line gets its own parser, so a malformed line
+            // is rejected on its own instead of leaving a shared parser unable to find the next record
+            try {
+                ReceiptRequest request = reader.readValue(lines.bytes(), 0, lines.length());
+                chunk.add(receiptService.prepare(request));
+            } catch (JsonProcessingException ex) {
+                rejected++;
+                if (rejectedLines.size() < maxReportedRejections) {
+                    rejectedLines.add(new ImportReport.RejectedLine(lineNumber, "Malformed receipt : " + ex.getOriginalMessage()));
+                }
+            } catch (InvalidReceiptException ex) {
+                rejected++;
+                if (rejectedLines.size() < maxReportedRejections) {
+                    rejectedLines.add(new ImportReport.RejectedLine(lineNumber, ex.getMessage()));
+                }
+            }
+
+            if (chunk.size() >= chunkSize) {
+                receiptService.saveChunk(chunk);
+                accepted += chunk.size();
+                chunk.clear();
+            }
+            if (lineNumber % progressInterval == 0) {
+                log.info("Import progress: {} lines read, {} accepted, {} rejected, {} receipts/sec",
+                        lineNumber, accepted, rejected, Math.round(throughput(accepted, start)));
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            receiptService.saveChunk(chunk);
+            accepted += chunk.size();
+            chunk.clear();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        ImportReport report = new ImportReport(accepted, rejected, elapsedMillis, throughput(accepted, start), rejectedLines);
+        log.info("Import finished: {} accepted, {} rejected in {} ms ({} receipts/sec)",
+                accepted, rejected, elapsedMillis, Math.round(report.receiptsPerSecond()));
+        return report;
+    }
+
+    private double throughput(long accepted, long start) {
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return seconds > 0 ? accepted / seconds : 0;
+    }
+
+    // Splits the input into lines as raw bytes in one reused buffer, so lines are never decoded into Strings and a line
+    // without a newline cannot grow past maxLineBytes; the rest of an overlong line is skipped, not buffered
+    private static final class LineReader {
+
+        private final InputStream input;
+        private final int maxLineBytes;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+        private int limit;
+        private byte[] line = new byte[1024];
+        private int length;
+        private boolean tooLong;
+
+        LineReader(InputStream input, int maxLineBytes) {
+            this.input = input;
+            this.maxLineBytes = maxLineBytes;
+        }
+
+        // Reads the next line, without its line terminator; false once the input is exhausted
+        boolean next() throws IOException {
+            length = 0;
+            tooLong = false;
+            boolean any = false;
+            while (true) {
+                if (position == limit) {
+                    int read = input.read(buffer, 0, buffer.length);
+                    if (read <= 0) {
+                        return any;
+                    }
+                    position = 0;
+                    limit = read;
+                }
+                any = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                append(start, position - start);
+                if (position < limit) {
+                    position++;
+                    if (length > 0 && line[length - 1] == '\r') {
+                        length--;
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void append(int offset, int count) {
+            if (tooLong || count == 0) {
+                return;
+            }
+            if (length + count > maxLineBytes) {
+                tooLong = true;
+                length = 0;
+                return;
+            }
+            if (length + count > line.length) {
+                line = Arrays.copyOf(line, Math.min(maxLineBytes, Math.max(line.length * 2, length + count)));
+            }
+            System.arraycopy(buffer, offset, line, length, count);
+            length += count;
+        }
+
+        byte[] bytes() {
+            return line;
+        }
+
+        int length() {
+            return length;
+        }
+
+        boolean tooLong() {
+            return tooLong;
+        }
+
+        // Blank in the String.trim() sense, which covers the whitespace NDJSON allows between records
+        boolean isBlank() {
+            for (int i = 0; i < length; i++) {
+                if (line[i] > ' ') {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
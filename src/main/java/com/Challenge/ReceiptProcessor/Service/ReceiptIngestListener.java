@@ -0,0 +1,11 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+
+// Notified once for every receipt accepted for storage, after it is scored. Duplicates answered with a stored ID
+// are not reported again. Called on the ingesting thread, so implementations must be cheap and thread-safe.
+// There is no matching callback for retention deletes, so anything built from these calls covers all-time ingest
+public interface ReceiptIngestListener {
+
+    void onStored(Receipt receipt);
+}
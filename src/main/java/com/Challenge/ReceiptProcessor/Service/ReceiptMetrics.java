@@ -0,0 +1,98 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Latency histograms for the ingest phases and lookups, plus rejection and not-found counters
+@Component
+@Lazy(false)
+public class ReceiptMetrics {
+
+    public enum Phase {
+        BIND, VALIDATE, SCORE, PERSIST
+    }
+
+    public enum LookupSource {
+        CACHE, PENDING, STORE
+    }
+
+    // Reason for bodies that cannot be parsed; the parser's own message echoes client input
+    public static final String MALFORMED_BODY = "Request body is malformed";
+
+    private final MeterRegistry meterRegistry;
+    private final Timer[] phaseTimers;
+    private final Timer[] lookupTimers;
+    private final Counter notFoundCounter;
+    private final ConcurrentHashMap<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+    public ReceiptMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        // Timers are created once up front so recording is a lock-free histogram update
+        Phase[] phases = Phase.values();
+        this.phaseTimers = new Timer[phases.length];
+        for (Phase phase : phases) {
+            phaseTimers[phase.ordinal()] = histogram(Timer.builder("receipt.ingest.phase")
+                    .description("Time spent in each phase of receipt ingest")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT)));
+        }
+
+        LookupSource[] sources = LookupSource.values();
+        this.lookupTimers = new Timer[sources.length];
+        for (LookupSource source : sources) {
+            lookupTimers[source.ordinal()] = histogram(Timer.builder("receipt.lookup")
+                    .description("Time to resolve the points of a receipt")
+                    .tag("source", source.name().toLowerCase(Locale.ROOT)));
+        }
+
+        this.notFoundCounter = Counter.builder("receipt.lookup.not.found")
+                .description("Lookups for receipt IDs that do not exist")
+                .register(meterRegistry);
+    }
+
+    private Timer histogram(Timer.Builder builder) {
+        return builder
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(500))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(meterRegistry);
+    }
+
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseTimers[phase.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLookup(LookupSource source, long startNanos) {
+        lookupTimers[source.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordNotFound() {
+        notFoundCounter.increment();
+    }
+
+    // Counts a rejection under its message category, e.g. "Total amount must be greater than zero". Each reason becomes
+    // a tag value that is kept for the life of the registry, so callers pass fixed messages, never client input
+    public void recordRejection(String message) {
+        String reason = category(message);
+        rejectionCounters.computeIfAbsent(reason, r -> Counter.builder("receipt.rejections")
+                .description("Receipts rejected at ingest, by reason")
+                .tag("reason", r)
+                .register(meterRegistry)).increment();
+    }
+
+    static String category(String message) {
+        if (message == null) {
+            return "unknown";
+        }
+        int separator = message.lastIndexOf(" : ");
+        return separator >= 0 ? message.substring(separator + 3) : message;
+    }
+}
@@ -1,33 +1,321 @@
 package com.Challenge.ReceiptProcessor.Service;
 
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
 import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
 import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidBatchException;
 import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
 import com.Challenge.ReceiptProcessor.Exception.ReceiptNotFoundException;
-import com.Challenge.ReceiptProcessor.Repository.ReceiptRepository;
-import jakarta.transaction.Transactional;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Scoring.RuleEngine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
-
+@Lazy(false)
 public class ReceiptService {
 
     @Autowired
-    private ReceiptRepository receiptRepository;
+    private ReceiptStore receiptStore;
+
+    @Autowired
+    private PointsCache pointsCache;
+
+    @Autowired
+    private RuleEngine ruleEngine;
+
+    @Autowired
+    private ReceiptMetrics receiptMetrics;
+
+    @Autowired
+    private Validator validator;
+
+    // Only present when receipt.ingest.mode=write-behind
+    @Autowired(required = false)
+    private WriteBehindWriter writeBehindWriter;
+
+    // Only present when receipt.dedup.enabled=true
+    @Autowired(required = false)
+    private DedupIndex dedupIndex;
+
+    // Aggregates kept up to date as receipts are stored
+    @Autowired(required = false)
+    private List<ReceiptIngestListener> ingestListeners = List.of();
+
+    @Value("${receipt.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${receipt.lookup.bulk.max-ids:10000}")
+    private int maxLookupIds;
 
     // Process receipt and return the generated ID
-    @Transactional
     public UUID processReceipt(Receipt receipt) {
-        // Check for standard mistakes in the receipt
+        long start = System.nanoTime();
+        try {
+            validate(receipt);
+        } catch (InvalidReceiptException ex) {
+            recordRejection(ex);
+            throw ex;
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.VALIDATE, start);
+        return ingest(receipt);
+    }
+
+    // Process a bound request; it is validated in the same pass that builds the entity
+    public UUID processRequest(ReceiptRequest request) {
+        long start = System.nanoTime();
+        Receipt receipt;
+        try {
+            receipt = toReceipt(request);
+        } catch (InvalidReceiptException ex) {
+            recordRejection(ex);
+            throw ex;
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.VALIDATE, start);
+        return ingest(receipt);
+    }
+
+    // Score, store and cache a receipt that has already passed validation
+    private UUID ingest(Receipt receipt) {
+        UUID id = assignId(receipt);
+
+        // In deduplicating mode a resubmitted receipt gets its stored ID back before any scoring or writing
+        ReceiptFingerprint fingerprint = null;
+        if (dedupIndex != null) {
+            fingerprint = ReceiptFingerprint.of(receipt);
+            UUID existing = dedupIndex.claim(fingerprint, id);
+            if (existing != null) {
+                receipt.setId(existing);
+                return existing;
+            }
+            receipt.setFingerprint(fingerprint.toBytes());
+        }
+
+        long start = System.nanoTime();
+        score(receipt);
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.SCORE, start);
+
+        // If valid, store receipt; the store commits before returning, the write-behind writer may not
+        start = System.nanoTime();
+        long generation = pointsCache.generation();
+        try {
+            if (writeBehindWriter != null) {
+                // The claim is committed and listeners hear about the receipt only once it is written. A write that
+                // fails after the receipt was acknowledged gives up its fingerprint claim, so a retry is stored instead
+                // of being answered with an ID that was never written
+                ReceiptFingerprint claimed = fingerprint;
+                writeBehindWriter.submit(receipt, () -> stored(receipt, claimed),
+                        claimed == null ? null : () -> dedupIndex.release(claimed, id));
+            } else {
+                receiptStore.save(receipt);
+            }
+        } catch (RuntimeException ex) {
+            if (fingerprint == null) {
+                throw ex;
+            }
+            dedupIndex.release(fingerprint, id);
+
+            // Lost a race on the unique fingerprint column, e.g. against another instance
+            if (ex instanceof DataIntegrityViolationException) {
+                Optional<UUID> stored = dedupIndex.findStored(fingerprint);
+                if (stored.isPresent()) {
+                    receipt.setId(stored.get());
+                    return stored.get();
+                }
+            }
+            throw ex;
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.PERSIST, start);
+
+        // The write-behind writer caches the points and runs stored() once the write commits; until then the points
+        // are served from its queue
+        if (writeBehindWriter == null) {
+            pointsCache.putIfCurrent(id, receipt.getPoints(), generation);
+            stored(receipt, fingerprint);
+        }
+
+        // Return the unique ID of the saved receipt
+        return id;
+    }
+
+    // Process a batch of receipts in one transaction and return the generated IDs in order
+    public List<UUID> processReceipts(List<Receipt> receipts) {
+        checkBatchSize(receipts);
+
+        // Validate every receipt first so the client gets all errors at once and nothing is saved
+        long start = System.nanoTime();
+        Map<Integer, String> errors = new TreeMap<>();
+        for (int i = 0; i < receipts.size(); i++) {
+            Receipt receipt = receipts.get(i);
+            try {
+                checkConstraints(receipt);
+                validate(receipt);
+            } catch (InvalidReceiptException ex) {
+                recordRejection(ex);
+                errors.put(i, ex.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidBatchException(errors);
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.VALIDATE, start);
+        return ingestAll(receipts);
+    }
+
+    // Process a batch of bound requests; nothing is saved unless every request is valid
+    public List<UUID> processRequests(List<ReceiptRequest> requests) {
+        checkBatchSize(requests);
+
+        long start = System.nanoTime();
+        List<Receipt> receipts = new ArrayList<>(requests.size());
+        Map<Integer, String> errors = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                receipts.add(toReceipt(requests.get(i)));
+            } catch (InvalidReceiptException ex) {
+                recordRejection(ex);
+                errors.put(i, ex.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidBatchException(errors);
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.VALIDATE, start);
+        return ingestAll(receipts);
+    }
+
+    private void checkBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new InvalidReceiptException("The batch is invalid : Batch must contain at least one receipt");
+        }
+        if (batch.size() > maxBatchSize) {
+            throw new InvalidReceiptException("The batch is invalid : Batch must not contain more than " + maxBatchSize + " receipts");
+        }
+    }
+
+    // Score and store a validated batch. Batches always write synchronously, in write-behind mode too: the client is
+    // promised that the whole batch is stored or none of it, which the writer's per-receipt retries cannot keep
+    private List<UUID> ingestAll(List<Receipt> receipts) {
+        long start = System.nanoTime();
+        List<UUID> ids = new ArrayList<>(receipts.size());
+        List<Receipt> toStore = dedupIndex == null ? receipts : new ArrayList<>(receipts.size());
+        List<ReceiptFingerprint> claimed = dedupIndex == null ? List.of() : new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            UUID id = assignId(receipt);
+
+            // Duplicates, including repeats within the batch, take the stored ID and are not written again
+            if (dedupIndex != null) {
+                ReceiptFingerprint fingerprint = ReceiptFingerprint.of(receipt);
+                UUID existing = dedupIndex.claim(fingerprint, id);
+                if (existing != null) {
+                    receipt.setId(existing);
+                    ids.add(existing);
+                    continue;
+                }
+                receipt.setFingerprint(fingerprint.toBytes());
+                claimed.add(fingerprint);
+                toStore.add(receipt);
+            }
+            score(receipt);
+            ids.add(id);
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.SCORE, start);
+
+        // saveAll lets the JPA store group the inserts into JDBC batches
+        start = System.nanoTime();
+        long generation = pointsCache.generation();
+        try {
+            if (!toStore.isEmpty()) {
+                receiptStore.saveAll(toStore);
+            }
+        } catch (RuntimeException ex) {
+            for (int i = 0; i < claimed.size(); i++) {
+                dedupIndex.release(claimed.get(i), toStore.get(i).getId());
+            }
+            throw ex;
+        }
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.PERSIST, start);
+        for (int i = 0; i < toStore.size(); i++) {
+            Receipt receipt = toStore.get(i);
+            pointsCache.putIfCurrent(receipt.getId(), receipt.getPoints(), generation);
+            stored(receipt, claimed.isEmpty() ? null : claimed.get(i));
+        }
+        return ids;
+    }
+
+    // Validate and score a request without saving it, for callers that persist in chunks
+    public Receipt prepare(ReceiptRequest request) {
+        Receipt receipt = toReceipt(request);
+        score(receipt);
+        assignId(receipt);
+        return receipt;
+    }
+
+    private Receipt toReceipt(ReceiptRequest request) {
+        if (request == null) {
+            throw new InvalidReceiptException("The receipt is invalid : Receipt cannot be null");
+        }
+        return request.toReceipt();
+    }
+
+    // Save a chunk of prepared receipts in one transaction; the cache is not warmed with bulk imports
+    public void saveChunk(List<Receipt> receipts) {
+        receiptStore.saveAll(receipts);
+        for (Receipt receipt : receipts) {
+            notifyStored(receipt);
+        }
+    }
+
+    // Runs once the receipt is in the store: its fingerprint claim can now be answered by the store as well
+    private void stored(Receipt receipt, ReceiptFingerprint fingerprint) {
+        if (fingerprint != null) {
+            dedupIndex.commit(fingerprint, receipt.getId());
+        }
+        notifyStored(receipt);
+    }
+
+    private void notifyStored(Receipt receipt) {
+        for (ReceiptIngestListener listener : ingestListeners) {
+            listener.onStored(receipt);
+        }
+    }
+
+    // Applies the bean validation constraints that @Valid checks for single receipts
+    private void checkConstraints(Receipt receipt) {
+        if (receipt == null) {
+            return;
+        }
+        Set<ConstraintViolation<Receipt>> violations = validator.validate(receipt);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw new InvalidReceiptException("The receipt is invalid : " + message);
+        }
+    }
+
+    // Check for standard mistakes in the receipt
+    private void validate(Receipt receipt) {
         if (receipt == null) {
             throw new InvalidReceiptException("The receipt is invalid : Receipt cannot be null");
         }
@@ -37,92 +325,158 @@ public class ReceiptService {
         if (receipt.getTotal() == null || receipt.getTotal().compareTo(BigDecimal.ZERO) <= 0) {
             throw new InvalidReceiptException("The receipt is invalid : Total amount must be greater than zero");
         }
+        if (!ScoringEngine.hasCentPrecision(receipt.getTotal())) {
+            throw new InvalidReceiptException("The receipt is invalid : Total amount must have at most two decimal places");
+        }
         for(Item item:receipt.getItems()){
+            if (item == null) {
+                throw new InvalidReceiptException("The receipt is invalid : Item cannot be null");
+            }
             if(item.getPrice() == null || item.getPrice().compareTo(BigDecimal.ZERO) <= 0){
                 throw new InvalidReceiptException("The receipt is invalid : Price of item must be greater than zero");
             }
+            if (!ScoringEngine.hasCentPrecision(item.getPrice())) {
+                throw new InvalidReceiptException("The receipt is invalid : Price of item must have at most two decimal places");
+            }
         }
+    }
 
-
-        // If valid, store receipt in the repository
-        Receipt savedReceipt = receiptRepository.save(receipt);
-
-        // Return the unique ID of the saved receipt
-        return savedReceipt.getId();
+    // Score the receipt once so lookups never have to recalculate
+    private void score(Receipt receipt) {
+        PointsBreakdown breakdown = calculatePoints(receipt);
+        receipt.setPointsBreakdown(breakdown);
+        receipt.setPoints(breakdown.getTotal());
     }
 
     // Get points based on receipt ID
     public int getPoints(UUID id) {
-        // Check if the receipt exists
-        Optional<Receipt> optionalReceipt = receiptRepository.findById(id);
-        if (optionalReceipt.isEmpty()) {
-            throw new ReceiptNotFoundException("No receipt found for that id:"+id);
-        }
-
-        // Calculate points
-        Receipt receipt = optionalReceipt.get();
-        return calculatePoints(receipt);
-    }
+        long start = System.nanoTime();
 
-    // Helper method to calculate points
-    private int calculatePoints(Receipt receipt) {
-        int points = 0;
-
-        // 1. One point for every alphanumeric character in the retailer name.
-        String retailer = receipt.getRetailer();
-
-        if (retailer != null) {
-            points += retailer.replaceAll("[^a-zA-Z0-9]", "").length();
+        // Serve from the cache when possible, skipping the database entirely
+        Integer cached = pointsCache.get(id);
+        if (cached != null) {
+            receiptMetrics.recordLookup(ReceiptMetrics.LookupSource.CACHE, start);
+            return cached;
+        }
 
+        // Receipts acknowledged by the write-behind writer but not written yet
+        if (writeBehindWriter != null) {
+            Integer pending = writeBehindWriter.getPendingPoints(id);
+            if (pending != null) {
+                receiptMetrics.recordLookup(ReceiptMetrics.LookupSource.PENDING, start);
+                return pending;
+            }
         }
 
-        // 2. 50 points if the total is a round dollar amount with no cents.
-        BigDecimal total = receipt.getTotal();
+        // Read the stored points, failing if the receipt does not exist. The retention sweeper may delete the receipt
+        // and invalidate its entry between the read and the put, which putIfCurrent detects
+        long generation = pointsCache.generation();
+        int points = receiptStore.findPoints(id).orElseThrow(() -> {
+            receiptMetrics.recordNotFound();
+            return new ReceiptNotFoundException("No receipt found for that id:"+id);
+        });
+        pointsCache.putIfCurrent(id, points, generation);
+        receiptMetrics.recordLookup(ReceiptMetrics.LookupSource.STORE, start);
+        return points;
+    }
 
-        if (total != null && total.remainder(BigDecimal.ONE).compareTo(BigDecimal.ZERO) == 0) {
-            points += 50;
+    // Points from the cache alone, or null on a miss, so non-blocking callers can answer hits without a store hop
+    public Integer getCachedPoints(UUID id) {
+        long start = System.nanoTime();
+        Integer cached = pointsCache.get(id);
+        if (cached != null) {
+            receiptMetrics.recordLookup(ReceiptMetrics.LookupSource.CACHE, start);
+        }
+        return cached;
+    }
 
+    // Get the points each rule awarded, as recorded at scoring time; never rescores the receipt
+    public PointsBreakdown getPointsBreakdown(UUID id) {
+        if (writeBehindWriter != null) {
+            PointsBreakdown pending = writeBehindWriter.getPendingBreakdown(id);
+            if (pending != null) {
+                return pending;
+            }
         }
-        // 3. 25 points if the total is a multiple of 0.25.
-        if (total != null && total.remainder(new BigDecimal("0.25")).compareTo(BigDecimal.ZERO) == 0) {
-            points += 25;
+        return receiptStore.findBreakdown(id).orElseThrow(() -> {
+            receiptMetrics.recordNotFound();
+            return new ReceiptNotFoundException("No points breakdown found for that id:"+id);
+        });
+    }
 
+    // Get points for many receipts at once; unknown IDs are reported as missing instead of failing
+    public BulkPointsResult getPoints(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidReceiptException("The lookup is invalid : At least one receipt id is required");
         }
-        // 4. 5 points for every two items on the receipt.
-        List<Item> items = receipt.getItems();
-        if (items != null) {
-            points += (items.size() / 2) * 5;
+        if (ids.size() > maxLookupIds) {
+            throw new InvalidReceiptException("The lookup is invalid : Lookup must not contain more than " + maxLookupIds + " ids");
+        }
+        // A loop rather than contains(null), which immutable lists such as List.of reject with an exception
+        for (UUID id : ids) {
+            if (id == null) {
+                throw new InvalidReceiptException("The lookup is invalid : Receipt id cannot be null");
+            }
         }
-        // 5. If the trimmed length of the item description is a multiple of 3,
-        // multiply the price by 0.2 and round up to the nearest integer.
-        if (items != null) {
-            for (Item item : items) {
-                String description = item.getShortDescription();
-                if (description != null && description.trim().length() % 3 == 0) {
-                    BigDecimal price = item.getPrice();
-                    if (price != null) {
-                        //BigDecimal bonus = price.multiply(new BigDecimal("0.2")).setScale(0, BigDecimal.ROUND_UP);
-                        BigDecimal bonus = price.multiply(new BigDecimal("0.2")).setScale(0, RoundingMode.UP);
-                        points += bonus.intValue();
-                    }
 
-                }
+        // Answer what we can from the cache and pending writes, then ask the store for the rest in one go
+        Set<UUID> unique = new LinkedHashSet<>(ids);
+        Map<UUID, Integer> found = new LinkedHashMap<>(unique.size() * 2);
+        List<UUID> remaining = new ArrayList<>();
+        for (UUID id : unique) {
+            Integer points = pointsCache.get(id);
+            if (points == null && writeBehindWriter != null) {
+                points = writeBehindWriter.getPendingPoints(id);
+            }
+            if (points != null) {
+                found.put(id, points);
+            } else {
+                remaining.add(id);
             }
         }
-        // 6. 6 points if the day in the purchase date is odd.
-        LocalDate purchaseDate = receipt.getPurchaseDate();
-        if (purchaseDate != null && purchaseDate.getDayOfMonth() % 2 != 0) {
-            points += 6;
+
+        // Bulk reads are not cached, so a reconciliation sweep does not evict the hot set
+        Map<UUID, Integer> stored = remaining.isEmpty() ? Map.of() : receiptStore.findPoints(remaining);
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : remaining) {
+            Integer points = stored.get(id);
+            if (points != null) {
+                found.put(id, points);
+            } else {
+                missing.add(id);
+            }
         }
 
-        // 7. 10 points if the time of purchase is after 2:00 pm and before 4:00 pm.
-        LocalTime purchaseTime = receipt.getPurchaseTime();
-        if (purchaseTime != null &&
-                purchaseTime.isAfter(LocalTime.of(14, 0)) &&
-                purchaseTime.isBefore(LocalTime.of(16, 0))) {
-            points += 10;
+        // Keep the response in request order regardless of where each value came from
+        Map<UUID, Integer> points = new LinkedHashMap<>(found.size() * 2);
+        for (UUID id : unique) {
+            Integer value = found.get(id);
+            if (value != null) {
+                points.put(id, value);
+            }
         }
-        return points;
+        return new BulkPointsResult(points, missing);
+    }
+
+    // One count per problem, so a receipt with several errors does not create a tag for that combination
+    private void recordRejection(InvalidReceiptException ex) {
+        for (String reason : ex.getReasons()) {
+            receiptMetrics.recordRejection(reason);
+        }
+    }
+
+    // IDs are assigned here rather than by the database so they can be returned before the write completes.
+    // The ingest time stamped alongside is what ingest-time retention measures age from
+    private UUID assignId(Receipt receipt) {
+        UUID id = UUID.randomUUID();
+        receipt.setId(id);
+        receipt.setIngestedAt(Instant.now());
+        return id;
+    }
+
+    // Helper method to calculate points for each active rule
+    private PointsBreakdown calculatePoints(Receipt receipt) {
+        return ruleEngine.score(receipt);
     }
 
 }
@@ -0,0 +1,116 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Receipt count, points and spend per retailer, updated as receipts are stored so reads never scan receipts.
+// LongAdder cells keep concurrent ingests for the same retailer from contending on one counter. Totals are all-time:
+// receipts deleted by retention are still counted
+@Component
+public class RetailerAggregates implements ReceiptIngestListener {
+
+    public enum Ranking {
+        POINTS, RECEIPTS, AMOUNT
+    }
+
+    private final ConcurrentHashMap<String, Totals> retailers = new ConcurrentHashMap<>();
+    private final int maxLimit;
+
+    public RetailerAggregates(@Value("${receipt.retailers.top.max-limit:100}") int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public void onStored(Receipt receipt) {
+        // get first, so the common case of a known retailer never takes computeIfAbsent's bin lock
+        String retailer = receipt.getRetailer();
+        if (retailer == null) {
+            return;
+        }
+        Totals totals = retailers.get(retailer);
+        if (totals == null) {
+            totals = retailers.computeIfAbsent(retailer, key -> new Totals());
+        }
+        totals.receipts.increment();
+        totals.points.add(receipt.getPoints());
+        totals.cents.add(ScoringEngine.toCents(receipt.getTotal()));
+    }
+
+    // Totals for one retailer, or null if none of its receipts were stored
+    public RetailerStats get(String retailer) {
+        Totals totals = retailer == null ? null : retailers.get(retailer);
+        return totals == null ? null : totals.snapshot(retailer);
+    }
+
+    // Highest-ranked retailers, best first; a bounded heap keeps this O(R log limit) in the number of retailers
+    public List<RetailerStats> top(int limit, String rankBy) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new InvalidReceiptException("The query is invalid : Limit must be between 1 and " + maxLimit);
+        }
+        Comparator<RetailerStats> order = comparator(ranking(rankBy));
+
+        PriorityQueue<RetailerStats> heap = new PriorityQueue<>(limit + 1, order);
+        for (Map.Entry<String, Totals> entry : retailers.entrySet()) {
+            heap.add(entry.getValue().snapshot(entry.getKey()));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<RetailerStats> top = new ArrayList<>(heap);
+        top.sort(order.reversed());
+        return top;
+    }
+
+    public int retailerCount() {
+        return retailers.size();
+    }
+
+    private static Ranking ranking(String rankBy) {
+        try {
+            return Ranking.valueOf(rankBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            throw new InvalidReceiptException("The query is invalid : Ranking must be one of points, receipts, amount");
+        }
+    }
+
+    // Ascending by the ranked value; ties go to the alphabetically first retailer so results are stable
+    private static Comparator<RetailerStats> comparator(Ranking ranking) {
+        Comparator<RetailerStats> byValue = switch (ranking) {
+            case POINTS -> Comparator.comparingLong(RetailerStats::points);
+            case RECEIPTS -> Comparator.comparingLong(RetailerStats::receipts);
+            case AMOUNT -> Comparator.comparing(RetailerStats::totalAmount);
+        };
+        return byValue.thenComparing(RetailerStats::retailer, Comparator.reverseOrder());
+    }
+
+    private static final class Totals {
+
+        private final LongAdder receipts = new LongAdder();
+        private final LongAdder points = new LongAdder();
+        private final LongAdder cents = new LongAdder();
+
+        // Each sum is read separately, so a snapshot taken mid-ingest may be one receipt apart between fields
+        RetailerStats snapshot(String retailer) {
+            long count = receipts.sum();
+            long totalCents = cents.sum();
+            BigDecimal total = BigDecimal.valueOf(totalCents, 2);
+            BigDecimal average = count == 0
+                    ? BigDecimal.ZERO.setScale(2)
+                    : total.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP);
+            return new RetailerStats(retailer, count, points.sum(), total, average);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import java.math.BigDecimal;
+
+// Running totals for one retailer; averageBasket is the mean receipt total, rounded to the cent
+public record RetailerStats(String retailer, long receipts, long points, BigDecimal totalAmount, BigDecimal averageBasket) {
+}
@@ -0,0 +1,191 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Repository.ExpiredReceipts;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Repository.RetentionCutoff;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+// Deletes receipts older than the retention period on a background thread. Each sweep removes expired receipts in
+// batches of batch-size, each its own short transaction, pausing between batches so request-path writes and lookups
+// are never queued behind one long delete. Deleted IDs are dropped from the points cache and dedup index, so their
+// lookups fall through to the store's primary-key miss and return 404
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.retention.enabled", havingValue = "true")
+public class RetentionSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionSweeper.class);
+
+    // Rough footprint of a row plus its index entries; neither H2 nor the map reports what a delete frees,
+    // so reclaimed memory is estimated from what was deleted
+    static final long RECEIPT_BYTES = 256;
+    static final long ITEM_BYTES = 96;
+
+    // purchase-date measures age from the receipt's purchase date, ingest-time from when it was accepted
+    public enum Basis {
+        PURCHASE_DATE, INGEST_TIME
+    }
+
+    public record SweepResult(long receipts, long items, int batches) {
+    }
+
+    private final ReceiptStore receiptStore;
+    private final PointsCache pointsCache;
+    private final ObjectProvider<DedupIndex> dedupIndex;
+    private final Basis basis;
+    private final Duration maxAge;
+    private final Duration sweepInterval;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Timer sweepTimer;
+    private final Counter deletedReceipts;
+    private final Counter deletedItems;
+    private final Counter reclaimedBytes;
+
+    private volatile boolean running;
+    private Thread sweeperThread;
+
+    public RetentionSweeper(ReceiptStore receiptStore,
+                            PointsCache pointsCache,
+                            ObjectProvider<DedupIndex> dedupIndex,
+                            MeterRegistry meterRegistry,
+                            @Value("${receipt.retention.basis:purchase-date}") String basis,
+                            @Value("${receipt.retention.max-age:365d}") Duration maxAge,
+                            @Value("${receipt.retention.sweep-interval:5m}") Duration sweepInterval,
+                            @Value("${receipt.retention.batch-size:1000}") int batchSize,
+                            @Value("${receipt.retention.batch-pause:50ms}") Duration batchPause) {
+        if (!receiptStore.supportsRetention()) {
+            throw new IllegalArgumentException("receipt.retention.enabled is not supported by "
+                    + receiptStore.getClass().getSimpleName() + ", which cannot delete receipts");
+        }
+        if (!basis.equals("purchase-date") && !basis.equals("ingest-time")) {
+            throw new IllegalArgumentException("receipt.retention.basis must be purchase-date or ingest-time");
+        }
+        if (maxAge.isNegative() || maxAge.isZero()) {
+            throw new IllegalArgumentException("receipt.retention.max-age must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("receipt.retention.batch-size must be at least 1");
+        }
+        this.receiptStore = receiptStore;
+        this.pointsCache = pointsCache;
+        this.dedupIndex = dedupIndex;
+        this.basis = basis.equals("purchase-date") ? Basis.PURCHASE_DATE : Basis.INGEST_TIME;
+        this.maxAge = maxAge;
+        this.sweepInterval = sweepInterval;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+
+        this.sweepTimer = Timer.builder("receipt.retention.sweep")
+                .description("Time per retention sweep, including pauses between batches")
+                .register(meterRegistry);
+        this.deletedReceipts = Counter.builder("receipt.retention.deleted.receipts")
+                .description("Receipts deleted by the retention sweeper")
+                .register(meterRegistry);
+        this.deletedItems = Counter.builder("receipt.retention.deleted.items")
+                .description("Items deleted with expired receipts")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("receipt.retention.reclaimed")
+                .description("Estimated memory released by deleted receipts and items")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        sweeperThread = Thread.ofPlatform().name("receipt-retention").daemon().start(this::sweepLoop);
+    }
+
+    // Interrupts a sleeping or pausing sweeper; a batch already in its transaction finishes first
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        sweeperThread.interrupt();
+        sweeperThread.join(sweepInterval.toMillis() + batchPause.toMillis());
+    }
+
+    // Everything older than max-age at the given time has expired. Purchase dates have no time of day, so a receipt
+    // expires once its whole purchase day is older than max-age
+    public RetentionCutoff cutoff(Instant now) {
+        Instant oldest = now.minus(maxAge);
+        return basis == Basis.PURCHASE_DATE
+                ? RetentionCutoff.purchasedBefore(LocalDate.ofInstant(oldest, ZoneId.systemDefault()))
+                : RetentionCutoff.ingestedBefore(oldest);
+    }
+
+    // Deletes batches until one comes back short; receipts that expire during the sweep wait for the next one
+    public SweepResult sweep(Instant now) throws InterruptedException {
+        RetentionCutoff cutoff = cutoff(now);
+        long start = System.nanoTime();
+        long receipts = 0;
+        long items = 0;
+        int batches = 0;
+        try {
+            while (true) {
+                ExpiredReceipts expired = receiptStore.deleteExpired(cutoff, batchSize);
+                if (expired.isEmpty()) {
+                    break;
+                }
+                batches++;
+                evict(expired);
+                receipts += expired.ids().size();
+                items += expired.itemCount();
+                if (expired.ids().size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPause);
+            }
+        } finally {
+            sweepTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return new SweepResult(receipts, items, batches);
+    }
+
+    private void evict(ExpiredReceipts expired) {
+        pointsCache.invalidateAll(expired.ids());
+        DedupIndex index = dedupIndex.getIfAvailable();
+        if (index != null) {
+            index.forget(expired);
+        }
+        deletedReceipts.increment(expired.ids().size());
+        deletedItems.increment(expired.itemCount());
+        reclaimedBytes.increment(expired.ids().size() * RECEIPT_BYTES + expired.itemCount() * ITEM_BYTES);
+    }
+
+    private void sweepLoop() {
+        while (running) {
+            try {
+                Thread.sleep(sweepInterval);
+                SweepResult result = sweep(Instant.now());
+                if (result.receipts() > 0) {
+                    log.info("Retention sweep deleted {} receipts and {} items in {} batches",
+                            result.receipts(), result.items(), result.batches());
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // Deleted batches are committed; the rest is retried on the next sweep
+                log.error("Retention sweep failed", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// Scores receipts on long cents with plain character loops, so the rules themselves allocate nothing
+public final class ScoringEngine {
+
+    private static final long AFTERNOON_START_NANOS = LocalTime.of(14, 0).toNanoOfDay();
+    private static final long AFTERNOON_END_NANOS = LocalTime.of(16, 0).toNanoOfDay();
+
+    // Amounts of up to 15 digits in cents stay below 2^50, where a double round trip is off by far less than a cent
+    private static final int MAX_DOUBLE_CENTS_DIGITS = 15;
+
+    private ScoringEngine() {
+    }
+
+    // Scores every rule for the receipt into the given breakdown
+    public static void score(Receipt receipt, PointsBreakdown breakdown) {
+        breakdown.setRetailerPoints(retailerPoints(receipt.getRetailer()));
+
+        BigDecimal total = receipt.getTotal();
+        int roundTotalPoints = 0;
+        int quarterTotalPoints = 0;
+        if (total != null) {
+            long totalCents = toCents(total);
+            roundTotalPoints = roundTotalPoints(totalCents);
+            quarterTotalPoints = quarterTotalPoints(totalCents);
+        }
+        breakdown.setRoundTotalPoints(roundTotalPoints);
+        breakdown.setQuarterTotalPoints(quarterTotalPoints);
+
+        List<Item> items = receipt.getItems();
+        int itemPairPoints = 0;
+        int itemDescriptionPoints = 0;
+        if (items != null) {
+            itemPairPoints = itemPairPoints(items.size());
+            for (int i = 0, n = items.size(); i < n; i++) {
+                Item item = items.get(i);
+                BigDecimal price = item.getPrice();
+                // Only convert the price when the description qualifies for the bonus
+                if (price != null && descriptionQualifies(item.getShortDescription())) {
+                    itemDescriptionPoints += priceBonus(toCents(price));
+                }
+            }
+        }
+        breakdown.setItemPairPoints(itemPairPoints);
+        breakdown.setItemDescriptionPoints(itemDescriptionPoints);
+
+        breakdown.setOddDayPoints(oddDayPoints(receipt.getPurchaseDate()));
+        breakdown.setPurchaseTimePoints(purchaseTimePoints(receipt.getPurchaseTime()));
+    }
+
+    // 1. One point for every alphanumeric character in the retailer name.
+    public static int retailerPoints(CharSequence retailer) {
+        if (retailer == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0, n = retailer.length(); i < n; i++) {
+            char c = retailer.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 2. 50 points if the total is a round dollar amount with no cents.
+    public static int roundTotalPoints(long totalCents) {
+        return totalCents % 100 == 0 ? 50 : 0;
+    }
+
+    // 3. 25 points if the total is a multiple of 0.25.
+    public static int quarterTotalPoints(long totalCents) {
+        return totalCents % 25 == 0 ? 25 : 0;
+    }
+
+    // 4. 5 points for every two items on the receipt.
+    public static int itemPairPoints(int itemCount) {
+        return (itemCount / 2) * 5;
+    }
+
+    // 5. If the trimmed length of the item description is a multiple of 3,
+    // multiply the price by 0.2 and round up to the nearest integer.
+    public static int itemDescriptionPoints(CharSequence description, long priceCents) {
+        return descriptionQualifies(description) ? priceBonus(priceCents) : 0;
+    }
+
+    public static boolean descriptionQualifies(CharSequence description) {
+        return description != null && trimmedLength(description) % 3 == 0;
+    }
+
+    // price * 0.2 rounded away from zero, i.e. cents / 500 rounded up in magnitude
+    public static int priceBonus(long priceCents) {
+        long bonus = priceCents >= 0 ? (priceCents + 499) / 500 : -((-priceCents + 499) / 500);
+        return (int) bonus;
+    }
+
+    // 6. 6 points if the day in the purchase date is odd.
+    public static int oddDayPoints(LocalDate purchaseDate) {
+        return purchaseDate != null && purchaseDate.getDayOfMonth() % 2 != 0 ? 6 : 0;
+    }
+
+    // 7. 10 points if the time of purchase is after 2:00 pm and before 4:00 pm.
+    public static int purchaseTimePoints(LocalTime purchaseTime) {
+        if (purchaseTime == null) {
+            return 0;
+        }
+        long nanoOfDay = purchaseTime.toNanoOfDay();
+        return nanoOfDay > AFTERNOON_START_NANOS && nanoOfDay < AFTERNOON_END_NANOS ? 10 : 0;
+    }
+
+    // Same semantics as String.trim(): strips leading and trailing characters up to U+0020
+    public static int trimmedLength(CharSequence value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end - start;
+    }
+
+    // True when the amount can be represented exactly in whole cents
+    public static boolean hasCentPrecision(BigDecimal amount) {
+        return amount.scale() <= 2 || amount.stripTrailingZeros().scale() <= 2;
+    }
+
+    // Exact cents of an amount with at most two decimal places. doubleValue divides the unscaled value by 10^scale in
+    // one correctly rounded step without allocating, so scaling back up and rounding recovers the exact cents;
+    // movePointRight would allocate a new BigDecimal on every call
+    public static long toCents(BigDecimal amount) {
+        int scale = amount.scale();
+        if (scale >= 0 && scale <= 2 && amount.precision() + 2 - scale <= MAX_DOUBLE_CENTS_DIGITS) {
+            return Math.round(amount.doubleValue() * 100);
+        }
+        return amount.movePointRight(2).longValueExact();
+    }
+}
@@ -0,0 +1,265 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.IngestUnavailableException;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Write-behind ingest: receipts are queued once scored and a background thread writes them to the store in batches
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "receipt.ingest.mode", havingValue = "write-behind")
+public class WriteBehindWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindWriter.class);
+
+    // QUEUED acknowledges once the receipt is queued; COMMITTED waits for the batch holding it to commit
+    public enum Durability {
+        QUEUED, COMMITTED
+    }
+
+    private record PendingWrite(Receipt receipt, CompletableFuture<Void> committed, Runnable onCommit, Runnable onFailure) {
+    }
+
+    private final ReceiptStore receiptStore;
+    private final PointsCache pointsCache;
+    private final BlockingQueue<PendingWrite> queue;
+    // The queued receipts themselves, so holding them here costs one map entry each
+    private final ConcurrentHashMap<UUID, Receipt> pending = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final Durability durability;
+    private final long offerTimeoutMillis;
+    private final long drainTimeoutMillis;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    // Submissions between their running check and their enqueue; the writer keeps draining until none are left
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public WriteBehindWriter(ReceiptStore receiptStore,
+                             PointsCache pointsCache,
+                             MeterRegistry meterRegistry,
+                             @Value("${receipt.ingest.write-behind.queue-capacity:10000}") int queueCapacity,
+                             @Value("${receipt.ingest.write-behind.batch-size:500}") int batchSize,
+                             @Value("${receipt.ingest.write-behind.durability:QUEUED}") Durability durability,
+                             @Value("${receipt.ingest.write-behind.offer-timeout-millis:1000}") long offerTimeoutMillis,
+                             @Value("${receipt.ingest.write-behind.drain-timeout-millis:30000}") long drainTimeoutMillis) {
+        this.receiptStore = receiptStore;
+        this.pointsCache = pointsCache;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.durability = durability;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+
+        Gauge.builder("receipt.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Receipts acknowledged but not yet written to the store")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("receipt.ingest.write-behind.written").register(meterRegistry);
+        this.failedCounter = Counter.builder("receipt.ingest.write-behind.failed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = Thread.ofPlatform().name("receipt-write-behind").start(this::drainLoop);
+    }
+
+    // Stop accepting receipts and give the writer time to flush everything already acknowledged
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(drainTimeoutMillis);
+        if (writerThread.isAlive()) {
+            log.warn("Write-behind queue not drained after {} ms, {} receipts not written", drainTimeoutMillis, queue.size());
+        }
+    }
+
+    // Queue a scored receipt with an assigned ID; in COMMITTED mode this waits for its batch to commit
+    public void submit(Receipt receipt) {
+        submit(receipt, null, null);
+    }
+
+    // As submit(receipt), running onCommit on the writer thread once the receipt is written, or onFailure if it is
+    // acknowledged but cannot be written, e.g. to release what the caller reserved for it
+    public void submit(Receipt receipt, Runnable onCommit, Runnable onFailure) {
+        // Counted before running is checked, so the writer cannot see an empty queue and exit while this receipt
+        // is on its way in: either the check fails or the writer waits for the count to drop
+        inFlight.incrementAndGet();
+        PendingWrite write;
+        try {
+            if (!running) {
+                throw new IngestUnavailableException("Receipt ingest is shutting down");
+            }
+            UUID id = receipt.getId();
+            write = new PendingWrite(receipt, durability == Durability.COMMITTED ? new CompletableFuture<>() : null,
+                    onCommit, onFailure);
+
+            // Visible to lookups before it is queued, so the writer can never remove it first
+            pending.put(id, receipt);
+            boolean queued;
+            try {
+                queued = queue.offer(write, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                pending.remove(id);
+                throw new IngestUnavailableException("Receipt ingest queue is full");
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        if (write.committed() != null) {
+            try {
+                write.committed().join();
+            } catch (CompletionException ex) {
+                throw new IngestUnavailableException("Receipt could not be written : " + ex.getCause().getMessage());
+            }
+        }
+    }
+
+    // Points of a receipt that has been acknowledged but not written yet, or null
+    public Integer getPendingPoints(UUID id) {
+        Receipt receipt = pending.get(id);
+        return receipt == null ? null : receipt.getPoints();
+    }
+
+    // Breakdown of a receipt that has been acknowledged but not written yet, or null
+    public PointsBreakdown getPendingBreakdown(UUID id) {
+        Receipt receipt = pending.get(id);
+        return receipt == null ? null : receipt.getPointsBreakdown();
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        // Read in this order: a submitter that got past its running check is counted in inFlight until its receipt is queued
+        while (running || inFlight.get() > 0 || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        List<Receipt> receipts = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            receipts.add(write.receipt());
+        }
+
+        long generation = pointsCache.generation();
+        Map<PendingWrite, RuntimeException> failures = Map.of();
+        try {
+            receiptStore.saveAll(receipts);
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind batch of {} receipts failed, writing them one at a time", receipts.size(), ex);
+            failures = writeEach(batch);
+        }
+        writtenCounter.increment(batch.size() - failures.size());
+
+        for (PendingWrite write : batch) {
+            Receipt receipt = write.receipt();
+            RuntimeException failure = failures.get(write);
+            if (failure == null) {
+                // Cached before leaving pending, so lookups never fall through to the store in between
+                pointsCache.putIfCurrent(receipt.getId(), receipt.getPoints(), generation);
+                runCallback(write.onCommit(), receipt);
+            } else {
+                pointsCache.invalidate(receipt.getId());
+                runCallback(write.onFailure(), receipt);
+            }
+            pending.remove(receipt.getId());
+            if (write.committed() != null) {
+                if (failure == null) {
+                    write.committed().complete(null);
+                } else {
+                    write.committed().completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    // A throwing callback must not stop the writer thread, which would leave the rest of the queue unwritten
+    private static void runCallback(Runnable callback, Receipt receipt) {
+        if (callback == null) {
+            return;
+        }
+        try {
+            callback.run();
+        } catch (RuntimeException ex) {
+            log.error("Write-behind callback for receipt {} failed", receipt.getId(), ex);
+        }
+    }
+
+    // A failed batch rolls back as a whole, so its receipts are retried singly and one bad record cannot sink the rest
+    private Map<PendingWrite, RuntimeException> writeEach(List<PendingWrite> batch) {
+        Map<PendingWrite, RuntimeException> failures = new IdentityHashMap<>();
+        for (PendingWrite write : batch) {
+            Receipt receipt = write.receipt();
+            resetGeneratedState(receipt);
+            try {
+                receiptStore.save(receipt);
+            } catch (RuntimeException ex) {
+                failures.put(write, ex);
+                failedCounter.increment();
+                log.error("Write-behind receipt {} could not be written and was dropped", receipt.getId(), ex);
+            }
+        }
+        return failures;
+    }
+
+    // The failed attempt may have drawn item IDs from the sequence and wrapped the item list in a collection bound to
+    // the rolled-back session; either would make JPA reject the retry as a detached entity
+    private static void resetGeneratedState(Receipt receipt) {
+        List<Item> items = new ArrayList<>(receipt.getItems());
+        for (Item item : items) {
+            item.setId(null);
+        }
+        receipt.setItems(items);
+    }
+}
@@ -0,0 +1,102 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Controller.ReactiveReceiptController;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Exception.ReceiptNotFoundException;
+import com.Challenge.ReceiptProcessor.ExceptionHandler.GlobalExceptionHandler;
+import com.Challenge.ReceiptProcessor.Service.ReactiveReceiptService;
+import com.Challenge.ReceiptProcessor.Service.ReceiptMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReceiptControllerTest {
+
+    @Mock
+    private ReactiveReceiptService reactiveReceiptService;
+
+    private WebTestClient webTestClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        webTestClient = WebTestClient
+                .bindToController(new ReactiveReceiptController(reactiveReceiptService))
+                .controllerAdvice(new GlobalExceptionHandler(new ReceiptMetrics(meterRegistry)))
+                .build();
+    }
+
+    @Test
+    void testProcessReceipt_ValidReceipt() {
+        // Arrange
+        UUID receiptId = UUID.randomUUID();
+        when(reactiveReceiptService.processRequest(any(ReceiptRequest.class))).thenReturn(Mono.just(receiptId));
+
+        // Act & Assert
+        webTestClient.post().uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"retailer\": \"Target\", \"purchaseDate\": \"2022-01-01\", \"purchaseTime\": \"13:01\","
+                        + " \"total\": \"6.49\", \"items\": [{\"shortDescription\": \"Mountain Dew 12PK\", \"price\": \"6.49\"}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(receiptId.toString());
+    }
+
+    @Test
+    void testProcessReceipt_UnreadableBody() {
+        // Act & Assert
+        webTestClient.post().uri("/receipts/process")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"purchaseDate\": \"2022-02-30\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .isEqualTo("The receipt is invalid : Purchase date must be a valid date in yyyy-MM-dd format");
+
+        // The metric gets the fixed reason, not the detail sent to the client
+        assertEquals(1.0, meterRegistry.get("receipt.rejections")
+                .tag("reason", ReceiptMetrics.MALFORMED_BODY).counter().count());
+        verifyNoInteractions(reactiveReceiptService);
+    }
+
+    @Test
+    void testGetPoints_ValidId() {
+        // Arrange
+        UUID receiptId = UUID.randomUUID();
+        when(reactiveReceiptService.getPoints(receiptId)).thenReturn(Mono.just(32));
+
+        // Act & Assert
+        webTestClient.get().uri("/receipts/{id}/points", receiptId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.points").isEqualTo(32);
+    }
+
+    @Test
+    void testGetPoints_UnknownId() {
+        // Arrange
+        UUID receiptId = UUID.randomUUID();
+        when(reactiveReceiptService.getPoints(receiptId))
+                .thenReturn(Mono.error(new ReceiptNotFoundException("No receipt found for that id:" + receiptId)));
+
+        // Act & Assert
+        webTestClient.get().uri("/receipts/{id}/points", receiptId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,133 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Dto.ItemRequest;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Exception.IngestUnavailableException;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.ReactiveReceiptService;
+import com.Challenge.ReceiptProcessor.Service.ReceiptService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReceiptServiceTest {
+
+    @Mock
+    private ReceiptService receiptService;
+
+    @Mock
+    private ReceiptStore receiptStore;
+
+    @InjectMocks
+    private ReactiveReceiptService reactiveReceiptService;
+
+    private Scheduler storeScheduler;
+
+    private final ReceiptRequest request = new ReceiptRequest("Target", LocalDate.of(2022, 1, 1), LocalTime.of(13, 1), 3535,
+            List.of(new ItemRequest("Pepsi", 3535)));
+
+    @BeforeEach
+    void setUp() {
+        storeScheduler = Schedulers.newBoundedElastic(1, 1, "receipt-store");
+        ReflectionTestUtils.setField(reactiveReceiptService, "storeScheduler", storeScheduler);
+        ReflectionTestUtils.setField(reactiveReceiptService, "ingestMode", "sync");
+    }
+
+    @AfterEach
+    void tearDown() {
+        storeScheduler.dispose();
+    }
+
+    @Test
+    void testProcessRequest_NonBlockingStoreRunsInline() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        when(receiptStore.isBlocking()).thenReturn(false);
+        when(receiptService.processRequest(request)).thenAnswer(invocation -> {
+            ranOn.set(Thread.currentThread());
+            return id;
+        });
+
+        // Act
+        UUID result = reactiveReceiptService.processRequest(request).block();
+
+        // Assert
+        assertEquals(id, result);
+        assertSame(Thread.currentThread(), ranOn.get());
+    }
+
+    @Test
+    void testProcessRequest_BlockingStoreRunsOnStoreScheduler() {
+        // Arrange
+        AtomicReference<String> ranOn = new AtomicReference<>();
+        when(receiptStore.isBlocking()).thenReturn(true);
+        when(receiptService.processRequest(request)).thenAnswer(invocation -> {
+            ranOn.set(Thread.currentThread().getName());
+            return UUID.randomUUID();
+        });
+
+        // Act
+        reactiveReceiptService.processRequest(request).block();
+
+        // Assert
+        assertTrue(ranOn.get().startsWith("receipt-store"), ranOn.get());
+    }
+
+    @Test
+    void testProcessRequest_FullStoreQueueIsRejected() throws InterruptedException {
+        // Arrange: One call holds the only store thread and a second fills the one-slot queue
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(receiptStore.isBlocking()).thenReturn(true);
+        when(receiptService.processRequest(request)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return UUID.randomUUID();
+        });
+        reactiveReceiptService.processRequest(request).subscribe();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        reactiveReceiptService.processRequest(request).subscribe();
+
+        // Act & Assert
+        Mono<UUID> rejected = reactiveReceiptService.processRequest(request);
+        Exception exception = assertThrows(IngestUnavailableException.class, rejected::block);
+        assertEquals("Receipt store is at capacity", exception.getMessage());
+        release.countDown();
+    }
+
+    @Test
+    void testGetPoints_CacheHitSkipsStore() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(receiptService.getCachedPoints(id)).thenReturn(28);
+
+        // Act
+        Integer points = reactiveReceiptService.getPoints(id).block();
+
+        // Assert
+        assertEquals(28, points);
+        verify(receiptService, never()).getPoints(id);
+        verifyNoInteractions(receiptStore);
+    }
+}
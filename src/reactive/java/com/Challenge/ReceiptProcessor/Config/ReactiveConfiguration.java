@@ -0,0 +1,30 @@
+package com.Challenge.ReceiptProcessor.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+// Reactive deployment mode (--spring.profiles.active=reactive): WebFlux on Netty event loops instead of a thread per request.
+// Only compiled into JARs built with the reactive Maven profile
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration {
+
+    // Tomcat is on the classpath for the servlet mode and would otherwise be picked to serve the reactive stack too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    // Calls into a blocking store run here: at most store-threads at once and store-queue waiting. Past that the
+    // scheduler rejects work and the request gets 503, so overload is pushed back to clients instead of buffered
+    @Bean(destroyMethod = "dispose")
+    public Scheduler receiptStoreScheduler(@Value("${receipt.reactive.store-threads:10}") int storeThreads,
+                                           @Value("${receipt.reactive.store-queue:1000}") int storeQueue) {
+        return Schedulers.newBoundedElastic(storeThreads, storeQueue, "receipt-store");
+    }
+}
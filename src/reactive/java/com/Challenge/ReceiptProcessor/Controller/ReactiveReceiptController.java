@@ -0,0 +1,48 @@
+package com.Challenge.ReceiptProcessor.Controller;
+
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Service.ReactiveReceiptService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Reactive counterpart of ReceiptController with the same api.yml contract. The body is decoded as it arrives and
+// no request holds a thread while it waits for its body or for the store
+@RestController
+@Lazy(false)
+@RequestMapping("/receipts")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReceiptController {
+
+    private final ReactiveReceiptService reactiveReceiptService;
+
+    public ReactiveReceiptController(ReactiveReceiptService reactiveReceiptService) {
+        this.reactiveReceiptService = reactiveReceiptService;
+    }
+
+    // Endpoint to process receipts
+    @PostMapping("/process")
+    public Mono<ResponseEntity<Map<String, UUID>>> processReceipt(@RequestBody Mono<ReceiptRequest> request) {
+        return request.flatMap(reactiveReceiptService::processRequest)
+                .map(id -> ResponseEntity.ok(Map.of("id", id)));
+    }
+
+    // Endpoint to get points for a receipt
+    @GetMapping("/{id}/points")
+    public Mono<ResponseEntity<Map<String, Integer>>> getPoints(@PathVariable UUID id) {
+        return reactiveReceiptService.getPoints(id)
+                .map(points -> ResponseEntity.ok(Map.of("points", points)));
+    }
+
+    // Endpoint to explain a receipt's points rule by rule
+    @GetMapping("/{id}/points/breakdown")
+    public Mono<ResponseEntity<PointsBreakdown>> getPointsBreakdown(@PathVariable UUID id) {
+        return reactiveReceiptService.getPointsBreakdown(id).map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,67 @@
+package com.Challenge.ReceiptProcessor.Service;
+
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Exception.IngestUnavailableException;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+// ReceiptService for the reactive API. Calls that can only touch memory (cache hits, a non-blocking store) run on
+// the event loop; anything that may wait on the store runs on the bounded store scheduler, whose full queue turns
+// into 503 + Retry-After rather than an ever-growing backlog
+@Service
+@Lazy(false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReceiptService {
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ReceiptStore receiptStore;
+
+    @Autowired
+    @Qualifier("receiptStoreScheduler")
+    private Scheduler storeScheduler;
+
+    @Value("${receipt.ingest.mode:sync}")
+    private String ingestMode;
+
+    // The write-behind writer can wait for queue space or a commit, so only sync ingest into a non-blocking store stays inline
+    public Mono<UUID> processRequest(ReceiptRequest request) {
+        boolean blocking = receiptStore.isBlocking() || !"sync".equals(ingestMode);
+        return call(() -> receiptService.processRequest(request), blocking);
+    }
+
+    public Mono<Integer> getPoints(UUID id) {
+        Integer cached = receiptService.getCachedPoints(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return call(() -> receiptService.getPoints(id), receiptStore.isBlocking());
+    }
+
+    public Mono<PointsBreakdown> getPointsBreakdown(UUID id) {
+        return call(() -> receiptService.getPointsBreakdown(id), receiptStore.isBlocking());
+    }
+
+    private <T> Mono<T> call(Callable<T> work, boolean blocking) {
+        Mono<T> result = Mono.fromCallable(work);
+        if (!blocking) {
+            return result;
+        }
+        return result.subscribeOn(storeScheduler)
+                .onErrorMap(RejectedExecutionException.class, ex -> new IngestUnavailableException("Receipt store is at capacity"));
+    }
+}
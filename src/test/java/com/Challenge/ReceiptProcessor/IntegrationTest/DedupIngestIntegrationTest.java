@@ -0,0 +1,81 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.ReceiptFingerprint;
+import com.Challenge.ReceiptProcessor.Service.ReceiptService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Rollback
+@TestPropertySource(properties = "receipt.dedup.enabled=true")
+class DedupIngestIntegrationTest {
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ReceiptStore receiptStore;
+
+    // A fresh, unsaved copy of the same receipt each time, as a retrying client would send it
+    private Receipt receipt(String retailer) {
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(LocalDate.of(2022, 11, 27));
+        receipt.setPurchaseTime(LocalTime.of(15, 0));
+        receipt.setTotal(BigDecimal.valueOf(5.50));
+        receipt.setItems(Arrays.asList(
+                new Item(null, "Milk", BigDecimal.valueOf(3.50), null),
+                new Item(null, "Bread", BigDecimal.valueOf(2.00), null)));
+        return receipt;
+    }
+
+    @Test
+    void testProcessReceipt_RetryReturnsSameId() {
+        // Arrange
+        long before = receiptStore.count();
+
+        // Act
+        UUID first = receiptService.processReceipt(receipt("DedupStore"));
+        UUID retry = receiptService.processReceipt(receipt("DedupStore"));
+        UUID other = receiptService.processReceipt(receipt("OtherStore"));
+
+        // Assert: The retry is answered with the stored ID and nothing new is written for it
+        assertEquals(first, retry);
+        assertNotEquals(first, other);
+        assertEquals(before + 2, receiptStore.count());
+        byte[] fingerprint = ReceiptFingerprint.of(receipt("DedupStore")).toBytes();
+        assertEquals(first, receiptStore.findIdByFingerprint(fingerprint).orElseThrow());
+    }
+
+    @Test
+    void testProcessReceipts_DuplicatesWithinBatch() {
+        // Arrange
+        long before = receiptStore.count();
+
+        // Act
+        List<UUID> ids = receiptService.processReceipts(Arrays.asList(receipt("BatchStore"), receipt("BatchStore")));
+
+        // Assert
+        assertEquals(2, ids.size());
+        assertEquals(ids.get(0), ids.get(1));
+        assertEquals(before + 1, receiptStore.count());
+        assertEquals(56, receiptService.getPoints(ids.get(0))); // 10 retailer + 25 quarter + 5 pair + 6 odd day + 10 time
+    }
+}
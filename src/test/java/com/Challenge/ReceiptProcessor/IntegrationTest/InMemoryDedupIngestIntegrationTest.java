@@ -0,0 +1,8 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the same deduplication tests against the in-memory receipt store
+@TestPropertySource(properties = "receipt.store.type=memory")
+class InMemoryDedupIngestIntegrationTest extends DedupIngestIntegrationTest {
+}
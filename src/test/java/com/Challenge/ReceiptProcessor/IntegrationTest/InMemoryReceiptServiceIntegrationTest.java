@@ -0,0 +1,8 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the same service tests against the in-memory receipt store
+@TestPropertySource(properties = "receipt.store.type=memory")
+class InMemoryReceiptServiceIntegrationTest extends ReceiptServiceIntegrationTest {
+}
@@ -0,0 +1,8 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the same service tests against the append-only log store
+@TestPropertySource(properties = {"receipt.store.type=log", "receipt.store.log.directory=target/test-receipt-log"})
+class LogReceiptServiceIntegrationTest extends ReceiptServiceIntegrationTest {
+}
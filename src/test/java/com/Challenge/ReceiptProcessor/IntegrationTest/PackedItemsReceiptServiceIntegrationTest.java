@@ -0,0 +1,8 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the same service tests with items packed into a column on the receipt row
+@TestPropertySource(properties = "receipt.store.jpa.items=packed")
+class PackedItemsReceiptServiceIntegrationTest extends ReceiptServiceIntegrationTest {
+}
@@ -0,0 +1,76 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.ImportReport;
+import com.Challenge.ReceiptProcessor.Service.ReceiptImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+@Rollback
+@TestPropertySource(properties = {"receipt.import.chunk-size=2", "receipt.import.max-line-bytes=1024"})
+class ReceiptImportServiceIntegrationTest {
+
+    private static final String VALID_RECEIPT = "{\"retailer\": \"Target\", \"purchaseDate\": \"2022-01-02\", \"purchaseTime\": \"13:13\", "
+            + "\"total\": \"1.25\", \"items\": [{\"shortDescription\": \"Pepsi - 12-oz\", \"price\": \"1.25\"}]}";
+
+    @Autowired
+    private ReceiptImportService receiptImportService;
+
+    @Autowired
+    private ReceiptStore receiptStore;
+
+    @Test
+    void testImportReceipts_MixedInput() throws Exception {
+        // Arrange: Three valid receipts spread over two chunks, one malformed line and one invalid receipt
+        String ndjson = VALID_RECEIPT + "\n"
+                + "{not json\n"
+                + VALID_RECEIPT + "\n"
+                + "\n"
+                + "{\"retailer\": \"Target\", \"purchaseDate\": \"2022-01-02\", \"purchaseTime\": \"13:13\", \"total\": \"1.25\", \"items\": []}\n"
+                + VALID_RECEIPT + "\n";
+        long before = receiptStore.count();
+
+        // Act
+        ImportReport report = receiptImportService.importReceipts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(3, report.accepted());
+        assertEquals(2, report.rejected());
+        assertEquals(2, report.rejectedLines().get(0).line());
+        assertEquals(5, report.rejectedLines().get(1).line());
+        assertEquals("The receipt is invalid : Receipt must have at least one item", report.rejectedLines().get(1).error());
+        assertEquals(before + 3, receiptStore.count());
+    }
+
+    @Test
+    void testImportReceipts_OverlongLineIsRejectedAndCrlfIsAccepted() throws Exception {
+        // Arrange: A line past the limit between two CRLF-terminated receipts, the last without a line terminator
+        String ndjson = VALID_RECEIPT + "\r\n"
+                + "{\"retailer\": \"" + "x".repeat(2000) + "\"}\r\n"
+                + VALID_RECEIPT;
+        long before = receiptStore.count();
+
+        // Act
+        ImportReport report = receiptImportService.importReceipts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, report.accepted());
+        assertEquals(1, report.rejected());
+        assertEquals(2, report.rejectedLines().get(0).line());
+        assertEquals("Line is longer than 1024 bytes", report.rejectedLines().get(0).error());
+        assertEquals(before + 2, receiptStore.count());
+    }
+}
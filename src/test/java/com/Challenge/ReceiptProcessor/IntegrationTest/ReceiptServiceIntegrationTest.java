@@ -1,24 +1,35 @@
 package com.Challenge.ReceiptProcessor.IntegrationTest;
 
 import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
 import com.Challenge.ReceiptProcessor.Entity.Receipt;
 import com.Challenge.ReceiptProcessor.Exception.ReceiptNotFoundException;
-import com.Challenge.ReceiptProcessor.Repository.ReceiptRepository;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.DedupIndex;
+import com.Challenge.ReceiptProcessor.Service.PointsCache;
 import com.Challenge.ReceiptProcessor.Service.ReceiptService;
+import com.Challenge.ReceiptProcessor.Service.RetentionSweeper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @SpringBootTest
 @Transactional
@@ -29,7 +40,16 @@ class ReceiptServiceIntegrationTest {
     private ReceiptService receiptService;
 
     @Autowired
-    private ReceiptRepository receiptRepository;
+    private ReceiptStore receiptStore;
+
+    @Autowired
+    private PointsCache pointsCache;
+
+    @Autowired
+    private ObjectProvider<DedupIndex> dedupIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     private Receipt validReceipt;
 
@@ -54,7 +74,7 @@ class ReceiptServiceIntegrationTest {
 
         // Assert: Verify the receipt is saved in the database
         assertNotNull(receiptId);
-        assertTrue(receiptRepository.findById(receiptId).isPresent());
+        assertTrue(receiptStore.findPoints(receiptId).isPresent());
     }
 
     @Test
@@ -81,6 +101,41 @@ class ReceiptServiceIntegrationTest {
         assertEquals(58, points); // Total = 58
     }
 
+    @Test
+    void testProcessReceipts_Batch() {
+        // Arrange: A second receipt with the same contents
+        Receipt second = new Receipt();
+        second.setRetailer("GroceryStore");
+        second.setPurchaseDate(LocalDate.of(2022, 11, 27));
+        second.setPurchaseTime(LocalTime.of(15, 0));
+        second.setTotal(BigDecimal.valueOf(5.50));
+        second.setItems(Arrays.asList(
+                new Item(null, "Milk", BigDecimal.valueOf(3.50), null),
+                new Item(null, "Bread", BigDecimal.valueOf(2.00), null)));
+
+        // Act: Process both receipts in one batch
+        List<UUID> ids = receiptService.processReceipts(Arrays.asList(validReceipt, second));
+
+        // Assert: Both are saved, in order, with their points
+        assertEquals(2, ids.size());
+        assertEquals(validReceipt.getId(), ids.get(0));
+        assertEquals(58, receiptService.getPoints(ids.get(0)));
+        assertEquals(58, receiptService.getPoints(ids.get(1)));
+    }
+
+    @Test
+    void testFindPoints_Bulk() {
+        // Arrange: Store one receipt and make up an unknown ID
+        UUID receiptId = receiptService.processReceipt(validReceipt);
+        UUID unknownId = UUID.randomUUID();
+
+        // Act: Read straight from the store so the points cache is bypassed
+        Map<UUID, Integer> points = receiptStore.findPoints(List.of(receiptId, unknownId));
+
+        // Assert: Only the stored receipt is returned
+        assertEquals(Map.of(receiptId, 58), points);
+    }
+
     @Test
     void testGetPoints_InvalidReceiptId() {
         // Arrange: Use a non-existent receipt ID
@@ -94,6 +149,24 @@ class ReceiptServiceIntegrationTest {
         assertEquals("No receipt found for that id:" + invalidId, exception.getMessage());
     }
 
+    @Test
+    void testGetPointsBreakdown() {
+        // Arrange: Round total on an odd day, with one bonus item
+        Item item1 = new Item(null, "Chocolate", BigDecimal.valueOf(2.25), validReceipt);
+        validReceipt.setItems(Arrays.asList(item1));
+        validReceipt.setPurchaseDate(LocalDate.of(2022, 11, 25));
+        validReceipt.setTotal(BigDecimal.valueOf(10.00));
+        UUID receiptId = receiptService.processReceipt(validReceipt);
+
+        // Act: Read what was recorded when the receipt was scored
+        PointsBreakdown breakdown = receiptService.getPointsBreakdown(receiptId);
+
+        // Assert: Every rule's share, adding up to the stored points
+        assertEquals(new PointsBreakdown(12, 50, 25, 0, 1, 6, 10, 0), breakdown);
+        assertEquals(receiptService.getPoints(receiptId), breakdown.getTotal());
+        assertThrows(ReceiptNotFoundException.class, () -> receiptService.getPointsBreakdown(UUID.randomUUID()));
+    }
+
     @Test
     void testCalculatePoints_EdgeCase() {
         // Arrange: Set up edge case data
@@ -111,4 +184,23 @@ class ReceiptServiceIntegrationTest {
 
         assertEquals(104, points); // Total = 104
     }
+
+    @Test
+    void testRetentionSweep_ExpiredReceiptIsNotFound() throws InterruptedException {
+        // Arrange: A receipt that is cached, and a sweeper for which it is two days past a one-day limit
+        assumeTrue(receiptStore.supportsRetention());
+        UUID receiptId = receiptService.processReceipt(validReceipt);
+        receiptService.getPoints(receiptId);
+        RetentionSweeper sweeper = new RetentionSweeper(receiptStore, pointsCache, dedupIndex, meterRegistry,
+                "ingest-time", Duration.ofDays(1), Duration.ofMinutes(5), 1000, Duration.ZERO);
+
+        // Act
+        RetentionSweeper.SweepResult result = sweeper.sweep(Instant.now().plus(Duration.ofDays(2)));
+
+        // Assert: Gone from the store and the cache
+        assertTrue(result.receipts() >= 1);
+        assertTrue(receiptStore.findPoints(receiptId).isEmpty());
+        assertThrows(ReceiptNotFoundException.class, () -> receiptService.getPoints(receiptId));
+        assertThrows(ReceiptNotFoundException.class, () -> receiptService.getPointsBreakdown(receiptId));
+    }
 }
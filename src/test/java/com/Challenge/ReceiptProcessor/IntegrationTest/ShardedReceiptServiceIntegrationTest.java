@@ -0,0 +1,8 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import org.springframework.test.context.TestPropertySource;
+
+// Runs the same service tests against the hash-partitioned store
+@TestPropertySource(properties = {"receipt.store.type=sharded", "receipt.store.sharded.url-pattern=jdbc:h2:mem:test-shard-%d;DB_CLOSE_DELAY=-1"})
+class ShardedReceiptServiceIntegrationTest extends ReceiptServiceIntegrationTest {
+}
@@ -0,0 +1,64 @@
+package com.Challenge.ReceiptProcessor.IntegrationTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.ReceiptService;
+import com.Challenge.ReceiptProcessor.Service.WriteBehindWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not @Transactional: the background writer commits on its own thread
+@SpringBootTest
+@TestPropertySource(properties = {
+        "receipt.ingest.mode=write-behind",
+        "receipt.points-cache.enabled=false"
+})
+class WriteBehindIngestIntegrationTest {
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ReceiptStore receiptStore;
+
+    @Autowired
+    private WriteBehindWriter writeBehindWriter;
+
+    @Test
+    void testProcessReceipt_PointsAvailableBeforeAndAfterWrite() throws InterruptedException {
+        // Arrange
+        Receipt receipt = new Receipt();
+        receipt.setRetailer("GroceryStore");
+        receipt.setPurchaseDate(LocalDate.of(2022, 11, 27));
+        receipt.setPurchaseTime(LocalTime.of(15, 0));
+        receipt.setTotal(BigDecimal.valueOf(5.50));
+        receipt.setItems(Arrays.asList(
+                new Item(null, "Milk", BigDecimal.valueOf(3.50), null),
+                new Item(null, "Bread", BigDecimal.valueOf(2.00), null)));
+
+        // Act: The ID is returned as soon as the receipt is queued
+        UUID receiptId = receiptService.processReceipt(receipt);
+
+        // Assert: Points are served whether or not the writer has caught up
+        assertEquals(58, receiptService.getPoints(receiptId));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (receiptStore.findPoints(receiptId).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(58, receiptStore.findPoints(receiptId).orElseThrow());
+        assertNull(writeBehindWriter.getPendingPoints(receiptId));
+        assertEquals(58, receiptService.getPoints(receiptId));
+    }
+}
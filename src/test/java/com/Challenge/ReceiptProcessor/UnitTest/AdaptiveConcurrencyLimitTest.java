@@ -0,0 +1,66 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Controller.AdaptiveConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void testTryAcquire_RejectsBeyondLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, Duration.ofSeconds(1).toNanos(), 0.5);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.inflight());
+    }
+
+    @Test
+    void testRelease_FastResponsesUnderLoadRaiseLimit() {
+        // Arrange
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 3, Duration.ofSeconds(1).toNanos(), 0.5);
+
+        // Act: Both slots in use, then two fast responses
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.release(System.nanoTime(), false);
+        limit.release(System.nanoTime(), false);
+
+        // Assert: Grows by one while at least half the limit is in use
+        assertEquals(3, limit.limit());
+        assertEquals(0, limit.inflight());
+    }
+
+    @Test
+    void testRelease_FailuresCutLimitOncePerInterval() throws InterruptedException {
+        // Arrange: An interval long enough that a paused test thread cannot spread the burst over two of them
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(8, 2, 16, Duration.ofMillis(200).toNanos(), 0.5);
+        Thread.sleep(250);
+
+        // Act: A burst of failures within one interval only cuts once
+        for (int i = 0; i < 4; i++) {
+            limit.tryAcquire();
+        }
+        for (int i = 0; i < 4; i++) {
+            limit.release(System.nanoTime(), true);
+        }
+
+        // Assert
+        assertEquals(4, limit.limit());
+
+        // Act: A slow response after the interval cuts again, but never below the minimum
+        Thread.sleep(250);
+        limit.tryAcquire();
+        limit.release(System.nanoTime() - Duration.ofMillis(400).toNanos(), false);
+        Thread.sleep(250);
+        limit.tryAcquire();
+        limit.release(System.nanoTime(), true);
+
+        // Assert
+        assertEquals(2, limit.limit());
+    }
+}
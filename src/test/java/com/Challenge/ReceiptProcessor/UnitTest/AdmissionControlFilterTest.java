@@ -0,0 +1,71 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Controller.AdmissionControlFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // One ingest slot and one lookup slot, so a single held request saturates each class
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(1, 1, 1, 1000, 1, 1, 1, 1000, 0.9, 2, meterRegistry);
+
+    @Test
+    void testSaturatedIngest_ShedsPostButAdmitsLookup() throws Exception {
+        // Arrange: An ingest request holds the only ingest slot
+        filter.limit(AdmissionControlFilter.RequestClass.INGEST).tryAcquire();
+
+        // Act
+        MockHttpServletResponse post = execute(new MockHttpServletRequest("POST", "/receipts/process"));
+        MockHttpServletResponse get = execute(new MockHttpServletRequest("GET", "/receipts/" + UUID.randomUUID() + "/points"));
+
+        // Assert
+        assertEquals(503, post.getStatus());
+        assertEquals("2", post.getHeader("Retry-After"));
+        assertEquals(200, get.getStatus());
+        assertEquals(1.0, meterRegistry.get("receipt.admission.rejected").tag("class", "ingest").counter().count());
+        assertEquals(0.0, meterRegistry.get("receipt.admission.rejected").tag("class", "lookup").counter().count());
+    }
+
+    @Test
+    void testAdmittedRequest_ReleasesSlot() throws Exception {
+        // Act
+        MockHttpServletResponse first = execute(new MockHttpServletRequest("POST", "/receipts/points"));
+        MockHttpServletResponse second = execute(new MockHttpServletRequest("POST", "/receipts/points"));
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+        assertEquals(0, filter.limit(AdmissionControlFilter.RequestClass.LOOKUP).inflight());
+    }
+
+    @Test
+    void testUnclassifiedRequests_AreNotLimited() throws Exception {
+        // Arrange
+        filter.limit(AdmissionControlFilter.RequestClass.INGEST).tryAcquire();
+
+        // Act
+        MockHttpServletResponse importResponse = execute(new MockHttpServletRequest("POST", "/receipts/import"));
+        MockHttpServletResponse health = execute(new MockHttpServletRequest("GET", "/actuator/health"));
+
+        // Assert
+        assertEquals(200, importResponse.getStatus());
+        assertEquals(200, health.getStatus());
+    }
+
+    private MockHttpServletResponse execute(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
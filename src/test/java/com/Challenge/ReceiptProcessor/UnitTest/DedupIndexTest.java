@@ -0,0 +1,54 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Repository.InMemoryReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.DedupIndex;
+import com.Challenge.ReceiptProcessor.Service.ReceiptFingerprint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DedupIndexTest {
+
+    @Test
+    void testClaim_PendingClaimsSurviveCacheEviction() {
+        // Arrange: A recent cache of one entry and claims that were never written, so the store cannot answer for them
+        DedupIndex dedupIndex = new DedupIndex(new InMemoryReceiptStore(), 1, new SimpleMeterRegistry());
+        ReceiptFingerprint fingerprint = new ReceiptFingerprint(1, 1);
+        UUID id = UUID.randomUUID();
+        assertNull(dedupIndex.claim(fingerprint, id));
+
+        // Act
+        for (int i = 2; i < 100; i++) {
+            ReceiptFingerprint other = new ReceiptFingerprint(i, i);
+            UUID otherId = UUID.randomUUID();
+            dedupIndex.claim(other, otherId);
+            dedupIndex.commit(other, otherId);
+        }
+
+        // Assert
+        assertEquals(id, dedupIndex.claim(fingerprint, UUID.randomUUID()));
+    }
+
+    @Test
+    void testCommitAndRelease_OnlyReleasedClaimsCanBeClaimedAgain() {
+        // Arrange
+        DedupIndex dedupIndex = new DedupIndex(new InMemoryReceiptStore(), 100, new SimpleMeterRegistry());
+        ReceiptFingerprint committed = new ReceiptFingerprint(1, 1);
+        ReceiptFingerprint released = new ReceiptFingerprint(2, 2);
+        UUID committedId = UUID.randomUUID();
+        UUID releasedId = UUID.randomUUID();
+        dedupIndex.claim(committed, committedId);
+        dedupIndex.claim(released, releasedId);
+
+        // Act
+        dedupIndex.commit(committed, committedId);
+        dedupIndex.release(released, releasedId);
+
+        // Assert
+        assertEquals(committedId, dedupIndex.claim(committed, UUID.randomUUID()));
+        assertNull(dedupIndex.claim(released, UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,183 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Repository.LogReceiptStore;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogReceiptStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private LogReceiptStore open(long segmentSizeBytes, long indexCapacity) throws IOException {
+        LogReceiptStore store = new LogReceiptStore(directory, segmentSizeBytes, indexCapacity, false);
+        store.open();
+        return store;
+    }
+
+    private Receipt receipt(int points) {
+        Receipt receipt = new Receipt();
+        receipt.setId(UUID.randomUUID());
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal("35.35"));
+        receipt.setItems(Arrays.asList(
+                new Item(null, "Mountain Dew 12PK", new BigDecimal("6.49"), null),
+                new Item(null, null, new BigDecimal("28.86"), null)));
+        receipt.setPointsBreakdown(new PointsBreakdown(6, 0, 0, 5, 6, 6, 0, points - 23));
+        receipt.setPoints(points);
+        return receipt;
+    }
+
+    @Test
+    void testSaveAndFind() throws IOException {
+        // Arrange
+        LogReceiptStore store = open(1 << 20, 16);
+        Receipt receipt = receipt(28);
+
+        // Act
+        store.save(receipt);
+
+        // Assert
+        assertEquals(Optional.of(28), store.findPoints(receipt.getId()));
+        assertEquals(Optional.empty(), store.findPoints(UUID.randomUUID()));
+        ReceiptRecord record = store.findRecord(receipt.getId()).orElseThrow();
+        assertEquals("Target", record.retailer());
+        assertEquals(3535, record.totalCents());
+        assertArrayEquals(new String[]{"Mountain Dew 12PK", null}, record.itemDescriptions());
+        assertArrayEquals(new long[]{649, 2886}, record.itemPriceCents());
+        assertEquals(Optional.of(receipt.getPointsBreakdown()), store.findBreakdown(receipt.getId()));
+        assertEquals(receipt.getPointsBreakdown(), record.breakdown());
+        store.close();
+    }
+
+    @Test
+    void testCleanRestart_MapsIndexWithoutReplay() throws IOException {
+        // Arrange: Enough receipts to roll segments and grow the index several times
+        LogReceiptStore store = open(4096, 16);
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            receipts.add(receipt(i));
+        }
+        store.saveAll(receipts);
+        store.close();
+
+        // Act
+        LogReceiptStore reopened = open(4096, 16);
+
+        // Assert
+        assertEquals(500, reopened.count());
+        for (Receipt receipt : receipts) {
+            assertEquals(Optional.of(receipt.getPoints()), reopened.findPoints(receipt.getId()));
+        }
+        assertEquals(receipts.get(7).getId(), reopened.findRecord(receipts.get(7).getId()).orElseThrow().id());
+        assertEquals(Optional.of(receipts.get(499).getPointsBreakdown()), reopened.findBreakdown(receipts.get(499).getId()));
+        assertTrue(segmentCount() > 1);
+        reopened.close();
+    }
+
+    @Test
+    void testUncleanRestart_RebuildsIndexAndDropsTornRecord() throws IOException {
+        // Arrange: Never closed, so the index is not trusted, and the last record is cut short
+        LogReceiptStore store = open(1 << 20, 16);
+        Receipt kept = receipt(10);
+        Receipt torn = receipt(20);
+        store.save(kept);
+        store.save(torn);
+        // The active segment is preallocated, so the record is torn by zeroing its last bytes instead of truncating
+        Path segment = directory.resolve("segment-00000001.log");
+        byte[] bytes = Files.readAllBytes(segment);
+        int end = bytes.length;
+        while (bytes[end - 1] == 0) {
+            end--;
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(3), end - 3);
+        }
+
+        // Act
+        LogReceiptStore reopened = open(1 << 20, 16);
+        Receipt next = receipt(30);
+        reopened.save(next);
+
+        // Assert
+        assertEquals(2, reopened.count());
+        assertEquals(Optional.of(10), reopened.findPoints(kept.getId()));
+        assertEquals(Optional.empty(), reopened.findPoints(torn.getId()));
+        assertEquals(Optional.of(30), reopened.findPoints(next.getId()));
+        reopened.close();
+    }
+
+    @Test
+    void testClose_TrimsPreallocatedSegments() throws IOException {
+        // Arrange: Small segments so the receipts span several of them
+        LogReceiptStore store = open(4096, 16);
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            receipts.add(receipt(i));
+        }
+        store.saveAll(receipts);
+
+        // Act
+        store.close();
+
+        // Assert: No segment keeps a zero tail past its last record
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(".log")).toList()) {
+                byte[] bytes = Files.readAllBytes(file);
+                assertTrue(bytes.length <= 4096);
+                assertNotEquals(0, bytes[bytes.length - 1]);
+            }
+        }
+    }
+
+    @Test
+    void testDuplicateFingerprint_IsRejected() throws IOException {
+        // Arrange
+        LogReceiptStore store = open(1 << 20, 16);
+        byte[] fingerprint = new byte[16];
+        fingerprint[0] = 1;
+        Receipt first = receipt(10);
+        first.setFingerprint(fingerprint);
+        Receipt second = receipt(10);
+        second.setFingerprint(fingerprint.clone());
+        store.save(first);
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> store.save(second));
+        assertEquals(Optional.of(first.getId()), store.findIdByFingerprint(fingerprint));
+        assertEquals(Optional.of(first.getPointsBreakdown()), store.findBreakdown(first.getId()));
+        assertEquals(1, store.count());
+        store.close();
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+}
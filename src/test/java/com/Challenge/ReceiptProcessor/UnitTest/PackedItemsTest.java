@@ -0,0 +1,82 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PackedItems;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedItemsTest {
+
+    @Test
+    void testEncodeDecode_RoundTrips() {
+        // Arrange
+        Receipt receipt = new Receipt();
+        List<Item> items = Arrays.asList(
+                new Item(null, "Mountain Dew 12PK", new BigDecimal("6.49"), null),
+                new Item(null, null, new BigDecimal("28.86"), null),
+                new Item(null, "Crème brûlée 🍮", new BigDecimal("123456.00"), null),
+                new Item(null, "", new BigDecimal("0.01"), null));
+
+        // Act
+        byte[] packed = PackedItems.encode(items);
+        List<Item> decoded = PackedItems.decode(packed, receipt);
+
+        // Assert
+        assertEquals(4, PackedItems.count(packed));
+        assertEquals(4, decoded.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(items.get(i).getShortDescription(), decoded.get(i).getShortDescription());
+            assertEquals(0, items.get(i).getPrice().compareTo(decoded.get(i).getPrice()));
+            assertSame(receipt, decoded.get(i).getReceipt());
+        }
+    }
+
+    @Test
+    void testEncode_IsCompact() {
+        // Arrange
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(new Item(null, "Item " + i, new BigDecimal("9.99"), null));
+        }
+
+        // Act
+        byte[] packed = PackedItems.encode(items);
+
+        // Assert: version, count, then two bytes of price and one of length ahead of each description
+        assertTrue(packed.length < 100 * 12, "packed length " + packed.length);
+    }
+
+    @Test
+    void testReceiptGetItems_PrefersPackedColumn() {
+        // Arrange
+        Receipt receipt = new Receipt();
+        receipt.setItems(List.of(new Item(null, "Table row", new BigDecimal("1.00"), receipt)));
+
+        // Act
+        receipt.setPackedItems(PackedItems.encode(List.of(new Item(null, "Packed", new BigDecimal("2.00"), null))));
+
+        // Assert
+        assertEquals("Packed", receipt.getItems().get(0).getShortDescription());
+        assertSame(receipt.getItems(), receipt.getItems());
+    }
+
+    @Test
+    void testDecode_RejectsUnknownVersion() {
+        assertThrows(IllegalArgumentException.class, () -> PackedItems.decode(new byte[]{9, 0}, new Receipt()));
+        assertThrows(IllegalArgumentException.class, () -> PackedItems.count(new byte[0]));
+    }
+
+    @Test
+    void testEncode_RejectsNegativePrice() {
+        List<Item> items = List.of(new Item(null, "Refund", new BigDecimal("-1.00"), null));
+
+        assertThrows(IllegalArgumentException.class, () -> PackedItems.encode(items));
+    }
+}
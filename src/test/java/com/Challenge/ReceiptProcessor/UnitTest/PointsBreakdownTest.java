@@ -0,0 +1,41 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointsBreakdownTest {
+
+    @Test
+    void testPackUnpack_RoundTrips() {
+        // Arrange: Every flat-rate rule awarded, plus a promotion
+        PointsBreakdown breakdown = new PointsBreakdown(14, 50, 25, 10, 6, 6, 10, 100);
+
+        // Act
+        PointsBreakdown unpacked = PointsBreakdown.unpack(breakdown.packRules(), breakdown.getItemDescriptionPoints(),
+                breakdown.getTotal());
+
+        // Assert
+        assertEquals(breakdown, unpacked);
+    }
+
+    @Test
+    void testPackUnpack_LargeValues() {
+        // Arrange: A long retailer name and a receipt with millions of items
+        PointsBreakdown breakdown = new PointsBreakdown(Integer.MAX_VALUE / 2, 0, 0, 5 * 3_000_000, 1_000_000, 0, 0, 0);
+
+        // Act
+        long rules = breakdown.packRules();
+
+        // Assert
+        assertTrue(rules >= 0);
+        assertEquals(breakdown, PointsBreakdown.unpack(rules, breakdown.getItemDescriptionPoints(), breakdown.getTotal()));
+    }
+
+    @Test
+    void testPackRules_NothingAwarded() {
+        assertEquals(0, new PointsBreakdown().packRules());
+        assertEquals(new PointsBreakdown(), PointsBreakdown.unpack(0, 0, 0));
+    }
+}
@@ -0,0 +1,65 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Service.PointsCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PointsCacheTest {
+
+    @Test
+    void testGetAndPut_RecordsHitsAndMisses() {
+        PointsCache cache = new PointsCache(true, 10, new SimpleMeterRegistry());
+        UUID id = UUID.randomUUID();
+
+        assertNull(cache.get(id)); // miss
+        cache.put(id, 28);
+
+        assertEquals(28, cache.get(id)); // hit
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testPut_EvictsBeyondMaximumSize() {
+        PointsCache cache = new PointsCache(true, 5, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 50; i++) {
+            cache.put(UUID.randomUUID(), i);
+        }
+        cache.cleanUp();
+
+        assertTrue(cache.size() <= 5);
+        assertTrue(cache.evictionCount() > 0);
+    }
+
+    @Test
+    void testPutIfCurrent_DropsValueLoadedBeforeInvalidation() {
+        PointsCache cache = new PointsCache(true, 10, new SimpleMeterRegistry());
+        UUID deleted = UUID.randomUUID();
+        UUID current = UUID.randomUUID();
+
+        long stale = cache.generation(); // a lookup reads the store, then the sweeper deletes and invalidates
+        cache.invalidateAll(List.of(deleted));
+        cache.putIfCurrent(deleted, 28, stale);
+        cache.putIfCurrent(current, 12, cache.generation());
+
+        assertNull(cache.get(deleted));
+        assertEquals(12, cache.get(current));
+    }
+
+    @Test
+    void testDisabledCache_NeverStores() {
+        PointsCache cache = new PointsCache(false, 10, new SimpleMeterRegistry());
+        UUID id = UUID.randomUUID();
+
+        cache.put(id, 10);
+
+        assertNull(cache.get(id));
+        assertEquals(0, cache.size());
+    }
+}
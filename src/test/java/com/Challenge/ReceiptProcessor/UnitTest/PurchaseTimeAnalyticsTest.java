@@ -0,0 +1,122 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import com.Challenge.ReceiptProcessor.Service.DailyTotals;
+import com.Challenge.ReceiptProcessor.Service.HourlyTotals;
+import com.Challenge.ReceiptProcessor.Service.OutOfRangeTotals;
+import com.Challenge.ReceiptProcessor.Service.PurchaseTimeAnalytics;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PurchaseTimeAnalyticsTest {
+
+    private static Receipt receipt(LocalDate date, LocalTime time, int points) {
+        Receipt receipt = new Receipt();
+        receipt.setPurchaseDate(date);
+        receipt.setPurchaseTime(time);
+        receipt.setPoints(points);
+        return receipt;
+    }
+
+    private static PurchaseTimeAnalytics populated() {
+        PurchaseTimeAnalytics analytics = new PurchaseTimeAnalytics(3660, 20);
+        analytics.onStored(receipt(LocalDate.of(2021, 12, 31), LocalTime.of(23, 59), 5));
+        analytics.onStored(receipt(LocalDate.of(2022, 1, 1), LocalTime.of(13, 1), 28));
+        analytics.onStored(receipt(LocalDate.of(2022, 1, 1), LocalTime.of(14, 33), 109));
+        analytics.onStored(receipt(LocalDate.of(2022, 1, 3), LocalTime.of(14, 0), 10));
+        return analytics;
+    }
+
+    @Test
+    void testDaily_ReturnsEveryDayInRange() {
+        // Act
+        List<DailyTotals> days = populated().daily(LocalDate.of(2021, 12, 31), LocalDate.of(2022, 1, 3));
+
+        // Assert
+        assertEquals(List.of(
+                new DailyTotals(LocalDate.of(2021, 12, 31), 1, 5),
+                new DailyTotals(LocalDate.of(2022, 1, 1), 2, 137),
+                new DailyTotals(LocalDate.of(2022, 1, 2), 0, 0),
+                new DailyTotals(LocalDate.of(2022, 1, 3), 1, 10)), days);
+    }
+
+    @Test
+    void testHourly_SumsAcrossRange() {
+        // Act
+        List<HourlyTotals> hours = populated().hourly(LocalDate.of(2022, 1, 1), LocalDate.of(2022, 1, 31));
+
+        // Assert
+        assertEquals(24, hours.size());
+        assertEquals(new HourlyTotals(13, 1, 28), hours.get(13));
+        assertEquals(new HourlyTotals(14, 2, 119), hours.get(14));
+        assertEquals(new HourlyTotals(23, 0, 0), hours.get(23)); // The 2021 receipt is outside the range
+    }
+
+    @Test
+    void testHourly_SkipsYearsWithoutReceipts() {
+        // Act
+        List<HourlyTotals> hours = populated().hourly(LocalDate.of(2019, 6, 1), LocalDate.of(2022, 1, 1));
+
+        // Assert
+        assertEquals(new HourlyTotals(23, 1, 5), hours.get(23));
+        assertEquals(new HourlyTotals(14, 1, 109), hours.get(14));
+    }
+
+    @Test
+    void testRange_IsValidated() {
+        PurchaseTimeAnalytics analytics = new PurchaseTimeAnalytics(400, 20);
+
+        Exception reversed = assertThrows(InvalidReceiptException.class,
+                () -> analytics.daily(LocalDate.of(2022, 1, 2), LocalDate.of(2022, 1, 1)));
+        Exception tooLong = assertThrows(InvalidReceiptException.class,
+                () -> analytics.hourly(LocalDate.of(2020, 1, 1), LocalDate.of(2022, 1, 1)));
+
+        assertEquals("The query is invalid : From date must not be after to date", reversed.getMessage());
+        assertEquals("The query is invalid : Range must not span more than 400 days", tooLong.getMessage());
+    }
+
+    @Test
+    void testOnStored_SkipsYearsOutsideWindow() {
+        // Arrange
+        PurchaseTimeAnalytics analytics = new PurchaseTimeAnalytics(3660, 20);
+        int currentYear = LocalDate.now().getYear();
+
+        // Act: Every year from 1 to 9999 outside the window, then the edges of the window
+        for (int year = 1; year <= 9999; year++) {
+            if (year < currentYear - 20 || year > currentYear + 1) {
+                analytics.onStored(receipt(LocalDate.of(year, 6, 1), LocalTime.of(12, 0), 5));
+            }
+        }
+        int outsideWindow = analytics.trackedYears();
+        analytics.onStored(receipt(LocalDate.of(currentYear - 20, 6, 1), LocalTime.of(12, 0), 5));
+        analytics.onStored(receipt(LocalDate.of(currentYear + 1, 6, 1), LocalTime.of(12, 0), 5));
+
+        // Assert: Only years inside the window hold counters
+        assertEquals(0, outsideWindow);
+        assertEquals(2, analytics.trackedYears());
+        assertEquals(List.of(new DailyTotals(LocalDate.of(1, 6, 1), 0, 0)),
+                analytics.daily(LocalDate.of(1, 6, 1), LocalDate.of(1, 6, 1)));
+    }
+
+    @Test
+    void testOutOfRange_CountsReceiptsOutsideTrackedYears() {
+        // Arrange
+        PurchaseTimeAnalytics analytics = new PurchaseTimeAnalytics(3660, 2);
+        int currentYear = LocalDate.now().getYear();
+
+        // Act
+        analytics.onStored(receipt(LocalDate.of(1900, 1, 1), LocalTime.of(12, 0), 7));
+        analytics.onStored(receipt(LocalDate.of(currentYear + 5, 1, 1), LocalTime.of(12, 0), 3));
+        analytics.onStored(receipt(LocalDate.of(currentYear, 1, 1), LocalTime.of(12, 0), 50));
+
+        // Assert
+        assertEquals(new OutOfRangeTotals(currentYear - 2, currentYear + 1, 2, 10), analytics.outOfRange());
+        assertEquals(1, analytics.trackedYears());
+    }
+}
@@ -0,0 +1,32 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Controller.ReceiptBindingMetricsAdvice;
+import com.Challenge.ReceiptProcessor.Controller.ReceiptController;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptBindingMetricsAdviceTest {
+
+    private final ReceiptBindingMetricsAdvice advice = new ReceiptBindingMetricsAdvice(null);
+
+    @Test
+    void testSupports_OnlyReceiptBodies() throws NoSuchMethodException {
+        assertTrue(supports(ReceiptController.class.getMethod("processReceipt", ReceiptRequest.class)));
+        assertTrue(supports(ReceiptController.class.getMethod("processReceipts", List.class)));
+        assertFalse(supports(ReceiptController.class.getMethod("getPoints", List.class))); // List<UUID> lookup
+        assertFalse(supports(ReceiptController.class.getMethod("getPoints", UUID.class)));
+    }
+
+    private boolean supports(Method method) {
+        MethodParameter parameter = new MethodParameter(method, 0);
+        return advice.supports(parameter, parameter.getGenericParameterType(), MappingJackson2HttpMessageConverter.class);
+    }
+}
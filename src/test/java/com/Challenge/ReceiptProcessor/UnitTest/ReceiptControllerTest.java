@@ -1,7 +1,9 @@
 package com.Challenge.ReceiptProcessor.UnitTest;
 
 import com.Challenge.ReceiptProcessor.Controller.ReceiptController;
-import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Service.BulkPointsResult;
 import com.Challenge.ReceiptProcessor.Service.ReceiptService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,6 +16,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -74,7 +79,7 @@ public class ReceiptControllerTest {
 
         UUID receiptId = UUID.randomUUID();
 
-        when(receiptService.processReceipt(any(Receipt.class))).thenReturn(receiptId);
+        when(receiptService.processRequest(any(ReceiptRequest.class))).thenReturn(receiptId);
 
         // Act & Assert
         mockMvc.perform(post("/receipts/process")
@@ -83,7 +88,7 @@ public class ReceiptControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(receiptId.toString()));
 
-        verify(receiptService, times(1)).processReceipt(any(Receipt.class));
+        verify(receiptService, times(1)).processRequest(any(ReceiptRequest.class));
     }
 
     @Test
@@ -104,6 +109,32 @@ public class ReceiptControllerTest {
         verifyNoInteractions(receiptService);
     }
 
+    @Test
+    void testProcessReceipts_ValidBatch() throws Exception {
+        // Arrange
+        String batchJson = "[" +
+                "{\"retailer\": \"Target\", \"purchaseDate\": \"2022-01-02\", \"purchaseTime\": \"13:13\"," +
+                " \"total\": \"1.25\", \"items\": [{\"shortDescription\": \"Pepsi - 12-oz\", \"price\": \"1.25\"}]}," +
+                "{\"retailer\": \"Walgreens\", \"purchaseDate\": \"2022-01-02\", \"purchaseTime\": \"08:13\"," +
+                " \"total\": \"2.65\", \"items\": [{\"shortDescription\": \"Dasani\", \"price\": \"2.65\"}]}" +
+                "]";
+
+        UUID firstId = UUID.randomUUID();
+        UUID secondId = UUID.randomUUID();
+
+        when(receiptService.processRequests(anyList())).thenReturn(List.of(firstId, secondId));
+
+        // Act & Assert
+        mockMvc.perform(post("/receipts/process/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids[0]").value(firstId.toString()))
+                .andExpect(jsonPath("$.ids[1]").value(secondId.toString()));
+
+        verify(receiptService, times(1)).processRequests(anyList());
+    }
+
     @Test
     void testGetPoints_ValidId() throws Exception {
         // Arrange
@@ -120,6 +151,22 @@ public class ReceiptControllerTest {
         verify(receiptService, times(1)).getPoints(receiptId);
     }
 
+    @Test
+    void testGetPointsBreakdown() throws Exception {
+        // Arrange
+        UUID receiptId = UUID.randomUUID();
+        when(receiptService.getPointsBreakdown(receiptId)).thenReturn(new PointsBreakdown(6, 0, 0, 10, 6, 6, 0, 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/receipts/{id}/points/breakdown", receiptId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.retailerPoints").value(6))
+                .andExpect(jsonPath("$.itemPairPoints").value(10))
+                .andExpect(jsonPath("$.total").value(28));
+
+        verify(receiptService, times(1)).getPointsBreakdown(receiptId);
+    }
+
     @Test
     void testGetPoints_InvalidId() throws Exception {
         // Arrange
@@ -131,4 +178,26 @@ public class ReceiptControllerTest {
 
         verifyNoInteractions(receiptService);
     }
+
+    @Test
+    void testGetPoints_Bulk() throws Exception {
+        // Arrange
+        UUID foundId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        Map<UUID, Integer> points = new LinkedHashMap<>();
+        points.put(foundId, 28);
+
+        when(receiptService.getPoints(List.of(foundId, missingId)))
+                .thenReturn(new BulkPointsResult(points, List.of(missingId)));
+
+        // Act & Assert
+        mockMvc.perform(post("/receipts/points")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(foundId, missingId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.points['" + foundId + "']").value(28))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+
+        verify(receiptService, times(1)).getPoints(List.of(foundId, missingId));
+    }
 }
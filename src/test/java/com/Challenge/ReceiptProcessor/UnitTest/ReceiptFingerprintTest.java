@@ -0,0 +1,57 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Service.ReceiptFingerprint;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptFingerprintTest {
+
+    private Receipt receipt(String retailer, String firstDescription, String secondDescription, String total) {
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(retailer);
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal(total));
+        receipt.setItems(Arrays.asList(
+                new Item(null, firstDescription, new BigDecimal("1.25"), null),
+                new Item(null, secondDescription, new BigDecimal("2.50"), null)));
+        return receipt;
+    }
+
+    @Test
+    void testFingerprint_SameContentMatches() {
+        // Amounts compare by value, so 3.75 and 3.750 are the same total
+        assertEquals(ReceiptFingerprint.of(receipt("Target", "Pepsi", "Dasani", "3.75")),
+                ReceiptFingerprint.of(receipt("Target", "Pepsi", "Dasani", "3.750")));
+    }
+
+    @Test
+    void testFingerprint_DifferentContentDiffers() {
+        ReceiptFingerprint original = ReceiptFingerprint.of(receipt("Target", "Pepsi", "Dasani", "3.75"));
+
+        assertNotEquals(original, ReceiptFingerprint.of(receipt("Target", "Dasani", "Pepsi", "3.75")));
+        assertNotEquals(original, ReceiptFingerprint.of(receipt("Target", "Pepsi", "Dasani", "3.76")));
+        assertNotEquals(original, ReceiptFingerprint.of(receipt("TargetP", "epsi", "Dasani", "3.75")));
+        assertNotEquals(ReceiptFingerprint.of(receipt("Target", null, "Dasani", "3.75")),
+                ReceiptFingerprint.of(receipt("Target", "", "Dasani", "3.75")));
+    }
+
+    @Test
+    void testToBytes() {
+        ReceiptFingerprint fingerprint = ReceiptFingerprint.of(receipt("Target", "Pepsi", "Dasani", "3.75"));
+
+        ByteBuffer bytes = ByteBuffer.wrap(fingerprint.toBytes());
+
+        assertEquals(16, bytes.capacity());
+        assertEquals(fingerprint, new ReceiptFingerprint(bytes.getLong(), bytes.getLong()));
+    }
+}
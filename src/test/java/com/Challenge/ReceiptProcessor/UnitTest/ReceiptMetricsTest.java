@@ -0,0 +1,37 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Service.ReceiptMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ReceiptMetrics receiptMetrics = new ReceiptMetrics(registry);
+
+    @Test
+    void testRecordRejection_CountsByMessageCategory() {
+        receiptMetrics.recordRejection("The receipt is invalid : Total amount must be greater than zero");
+        receiptMetrics.recordRejection("The receipt is invalid : Total amount must be greater than zero");
+        receiptMetrics.recordRejection("Retailer name must not be blank");
+
+        assertEquals(2.0, registry.get("receipt.rejections")
+                .tag("reason", "Total amount must be greater than zero").counter().count());
+        assertEquals(1.0, registry.get("receipt.rejections")
+                .tag("reason", "Retailer name must not be blank").counter().count());
+    }
+
+    @Test
+    void testRecordPhaseAndLookup_RecordIntoTaggedTimers() {
+        receiptMetrics.recordPhase(ReceiptMetrics.Phase.PERSIST, System.nanoTime());
+        receiptMetrics.recordLookup(ReceiptMetrics.LookupSource.CACHE, System.nanoTime());
+        receiptMetrics.recordNotFound();
+
+        assertEquals(1, registry.get("receipt.ingest.phase").tag("phase", "persist").timer().count());
+        assertEquals(0, registry.get("receipt.ingest.phase").tag("phase", "bind").timer().count());
+        assertEquals(1, registry.get("receipt.lookup").tag("source", "cache").timer().count());
+        assertEquals(1.0, registry.get("receipt.lookup.not.found").counter().count());
+    }
+}
@@ -0,0 +1,105 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Dto.Cents;
+import com.Challenge.ReceiptProcessor.Dto.ItemRequest;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptRequestTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testDeserialize_ParsesAmountsToCents() throws Exception {
+        // Arrange
+        String json = "{\"retailer\": \"Target\", \"purchaseDate\": \"2022-01-01\", \"purchaseTime\": \"13:01\", \"total\": \"35.35\","
+                + " \"ignored\": {\"nested\": [1, 2]}, \"items\": [{\"shortDescription\": \"Pepsi\", \"price\": 2.5}, {\"price\": \"12\"}, null]}";
+
+        // Act
+        ReceiptRequest request = objectMapper.readValue(json, ReceiptRequest.class);
+
+        // Assert
+        assertEquals("Target", request.retailer());
+        assertEquals(LocalDate.of(2022, 1, 1), request.purchaseDate());
+        assertEquals(LocalTime.of(13, 1), request.purchaseTime());
+        assertEquals(3535, request.totalCents());
+        assertEquals(Arrays.asList(new ItemRequest("Pepsi", 250), new ItemRequest(null, 1200), null), request.items());
+    }
+
+    @Test
+    void testDeserialize_RejectsNonNumericAmount() {
+        // Act & Assert
+        MismatchedInputException exception = assertThrows(MismatchedInputException.class, () -> {
+            objectMapper.readValue("{\"total\": \"12.x5\"}", ReceiptRequest.class);
+        });
+
+        assertEquals("Total amount must be a decimal number", exception.getOriginalMessage());
+    }
+
+    @Test
+    void testDeserialize_RejectsInvalidDate() {
+        // Act & Assert
+        MismatchedInputException exception = assertThrows(MismatchedInputException.class, () -> {
+            objectMapper.readValue("{\"purchaseDate\": \"2022-02-30\"}", ReceiptRequest.class);
+        });
+
+        assertEquals("Purchase date must be a valid date in yyyy-MM-dd format", exception.getOriginalMessage());
+    }
+
+    @Test
+    void testParseCents() {
+        assertEquals(1, Cents.parse("0.01"));
+        assertEquals(100, Cents.parse("1.000"));
+        assertEquals(-250, Cents.parse("-2.5"));
+        assertEquals(Cents.TOO_PRECISE, Cents.parse("1.005"));
+        assertEquals(Cents.MALFORMED, Cents.parse(""));
+        assertEquals(Cents.MALFORMED, Cents.parse("."));
+        assertEquals(Cents.MALFORMED, Cents.parse("1e2"));
+        assertEquals(Cents.MALFORMED, Cents.parse("1234567890123456"));
+    }
+
+    @Test
+    void testToReceipt_BuildsEntity() {
+        // Arrange
+        ReceiptRequest request = new ReceiptRequest("Target", LocalDate.of(2022, 1, 1), LocalTime.of(13, 1), 3535,
+                List.of(new ItemRequest("Pepsi", 3535)));
+
+        // Act
+        Receipt receipt = request.toReceipt();
+
+        // Assert
+        assertEquals(new BigDecimal("35.35"), receipt.getTotal());
+        assertEquals(1, receipt.getItems().size());
+        assertEquals(new BigDecimal("35.35"), receipt.getItems().get(0).getPrice());
+        assertSame(receipt, receipt.getItems().get(0).getReceipt());
+        assertNull(receipt.getId());
+    }
+
+    @Test
+    void testToReceipt_ReportsAllErrors() {
+        // Arrange
+        ReceiptRequest request = new ReceiptRequest(" ", null, LocalTime.of(13, 1), Cents.TOO_PRECISE,
+                Arrays.asList(new ItemRequest("Pepsi", 0), null));
+
+        // Act & Assert
+        Exception exception = assertThrows(InvalidReceiptException.class, request::toReceipt);
+
+        assertEquals("The receipt is invalid : Item cannot be null, Price of item must be greater than zero, "
+                + "Purchase date must not be null, Retailer name must not be blank, "
+                + "Total amount must have at most two decimal places", exception.getMessage());
+        assertEquals(5, ((InvalidReceiptException) exception).getReasons().size());
+        assertEquals("Item cannot be null", ((InvalidReceiptException) exception).getReasons().get(0));
+    }
+}
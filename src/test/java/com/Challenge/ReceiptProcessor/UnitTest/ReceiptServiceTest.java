@@ -1,23 +1,38 @@
 package com.Challenge.ReceiptProcessor.UnitTest;
 
+import com.Challenge.ReceiptProcessor.Dto.ItemRequest;
+import com.Challenge.ReceiptProcessor.Dto.ReceiptRequest;
 import com.Challenge.ReceiptProcessor.Entity.Item;
 import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidBatchException;
 import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
 import com.Challenge.ReceiptProcessor.Exception.ReceiptNotFoundException;
-import com.Challenge.ReceiptProcessor.Repository.ReceiptRepository;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Scoring.RuleEngine;
+import com.Challenge.ReceiptProcessor.Service.BulkPointsResult;
+import com.Challenge.ReceiptProcessor.Service.DedupIndex;
+import com.Challenge.ReceiptProcessor.Service.PointsCache;
+import com.Challenge.ReceiptProcessor.Service.ReceiptMetrics;
 import com.Challenge.ReceiptProcessor.Service.ReceiptService;
+import com.Challenge.ReceiptProcessor.Service.RetailerAggregates;
+import com.Challenge.ReceiptProcessor.Service.RetailerStats;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -28,7 +43,19 @@ import static org.mockito.Mockito.*;
 class ReceiptServiceTest {
 
     @Mock
-    private ReceiptRepository receiptRepository;
+    private ReceiptStore receiptStore;
+
+    @Mock
+    private PointsCache pointsCache;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private ReceiptMetrics receiptMetrics;
+
+    @Spy
+    private RuleEngine ruleEngine = new RuleEngine(List.of(), new SimpleMeterRegistry(), List.of(), 1);
 
     @InjectMocks
     private ReceiptService receiptService;
@@ -37,7 +64,8 @@ class ReceiptServiceTest {
 
     @BeforeEach
     void setUp() {
-        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(receiptService, "maxBatchSize", 1000);
+        ReflectionTestUtils.setField(receiptService, "maxLookupIds", 1000);
 
         // Initialize a valid receipt for testing
         Item item1 = new Item(1L, "Test Item 1", BigDecimal.valueOf(10.00), null);
@@ -55,14 +83,17 @@ class ReceiptServiceTest {
     @Test
     void testProcessReceipt_ValidReceipt() {
         // Arrange
-        when(receiptRepository.save(any(Receipt.class))).thenReturn(validReceipt);
+        when(receiptStore.save(any(Receipt.class))).thenReturn(validReceipt.getId());
 
         // Act
         UUID result = receiptService.processReceipt(validReceipt);
 
         // Assert
         assertNotNull(result);
-        verify(receiptRepository, times(1)).save(validReceipt);
+        assertEquals(result, validReceipt.getId()); // ID is assigned before the receipt is stored
+        assertEquals(validReceipt.getPointsBreakdown().getTotal(), validReceipt.getPoints());
+        verify(receiptStore, times(1)).save(validReceipt);
+        verify(pointsCache, times(1)).putIfCurrent(result, validReceipt.getPoints(), 0L);
     }
 
     @Test
@@ -73,7 +104,7 @@ class ReceiptServiceTest {
         });
 
         assertEquals("The receipt is invalid : Receipt cannot be null", exception.getMessage());
-        verifyNoInteractions(receiptRepository);
+        verifyNoInteractions(receiptStore);
     }
 
     @Test
@@ -87,7 +118,7 @@ class ReceiptServiceTest {
         });
 
         assertEquals("The receipt is invalid : Receipt must have at least one item", exception.getMessage());
-        verifyNoInteractions(receiptRepository);
+        verifyNoInteractions(receiptStore);
     }
 
     @Test
@@ -101,28 +132,162 @@ class ReceiptServiceTest {
         });
 
         assertEquals("The receipt is invalid : Total amount must be greater than zero", exception.getMessage());
-        verifyNoInteractions(receiptRepository);
+        verifyNoInteractions(receiptStore);
+        verify(receiptMetrics, times(1)).recordRejection(exception.getMessage());
+    }
+
+    @Test
+    void testProcessRequest_ValidRequest() {
+        // Arrange
+        ReceiptRequest request = new ReceiptRequest("Test Retailer", LocalDate.of(2022, 11, 27), LocalTime.of(15, 30), 1500,
+                List.of(new ItemRequest("Test Item 1", 1000), new ItemRequest("Test Item 2", 500)));
+
+        // Act
+        UUID result = receiptService.processRequest(request);
+
+        // Assert
+        assertNotNull(result);
+        verify(receiptStore, times(1)).save(argThat(receipt ->
+                result.equals(receipt.getId()) && new BigDecimal("15.00").equals(receipt.getTotal())));
+        verify(pointsCache, times(1)).putIfCurrent(eq(result), anyInt(), anyLong());
+    }
+
+    @Test
+    void testProcessRequest_InvalidRequest() {
+        // Arrange
+        ReceiptRequest request = new ReceiptRequest("Test Retailer", LocalDate.of(2022, 11, 27), LocalTime.of(15, 30), 0, List.of());
+
+        // Act & Assert
+        Exception exception = assertThrows(InvalidReceiptException.class, () -> {
+            receiptService.processRequest(request);
+        });
+
+        assertEquals("The receipt is invalid : Receipt must have at least one item, Total amount must be greater than zero",
+                exception.getMessage());
+        verifyNoInteractions(receiptStore);
+        verify(receiptMetrics, times(1)).recordRejection("Receipt must have at least one item");
+        verify(receiptMetrics, times(1)).recordRejection("Total amount must be greater than zero");
+        verify(receiptMetrics, never()).recordRejection(exception.getMessage());
+    }
+
+    @Test
+    void testProcessReceipt_DuplicateReturnsStoredId() {
+        // Arrange
+        ReflectionTestUtils.setField(receiptService, "dedupIndex", new DedupIndex(receiptStore, 100, new SimpleMeterRegistry()));
+        when(receiptStore.findIdByFingerprint(any(byte[].class))).thenReturn(Optional.empty());
+        Receipt retry = new Receipt();
+        retry.setRetailer(validReceipt.getRetailer());
+        retry.setPurchaseDate(validReceipt.getPurchaseDate());
+        retry.setPurchaseTime(validReceipt.getPurchaseTime());
+        retry.setTotal(validReceipt.getTotal());
+        retry.setItems(Arrays.asList(
+                new Item(null, "Test Item 1", BigDecimal.valueOf(10.00), null),
+                new Item(null, "Test Item 2", BigDecimal.valueOf(5.00), null)));
+
+        // Act
+        UUID first = receiptService.processReceipt(validReceipt);
+        UUID second = receiptService.processReceipt(retry);
+
+        // Assert
+        assertEquals(first, second);
+        assertNotNull(validReceipt.getFingerprint());
+        assertNull(retry.getPointsBreakdown()); // The duplicate is never scored
+        verify(receiptStore, times(1)).save(any(Receipt.class));
+    }
+
+    @Test
+    void testProcessReceipt_UpdatesRetailerAggregates() {
+        // Arrange
+        RetailerAggregates aggregates = new RetailerAggregates(10);
+        ReflectionTestUtils.setField(receiptService, "ingestListeners", List.of(aggregates));
+
+        // Act
+        receiptService.processReceipt(validReceipt);
+
+        // Assert
+        RetailerStats stats = aggregates.get("Test Retailer");
+        assertEquals(1, stats.receipts());
+        assertEquals(validReceipt.getPoints().longValue(), stats.points());
+        assertEquals(new BigDecimal("15.00"), stats.totalAmount());
+    }
+
+    @Test
+    void testProcessReceipts_ValidBatch() {
+        // Arrange
+        Receipt second = new Receipt();
+        second.setId(UUID.randomUUID());
+        second.setRetailer("Second Retailer");
+        second.setPurchaseDate(LocalDate.of(2022, 11, 28));
+        second.setPurchaseTime(LocalTime.of(9, 15));
+        second.setTotal(BigDecimal.valueOf(3.25));
+        second.setItems(Arrays.asList(new Item(null, "Soda", BigDecimal.valueOf(3.25), null)));
+        List<Receipt> batch = Arrays.asList(validReceipt, second);
+        when(receiptStore.saveAll(batch)).thenAnswer(invocation -> Arrays.asList(validReceipt.getId(), second.getId()));
+
+        // Act
+        List<UUID> ids = receiptService.processReceipts(batch);
+
+        // Assert
+        assertEquals(Arrays.asList(validReceipt.getId(), second.getId()), ids);
+        assertNotNull(second.getPoints());
+        verify(receiptStore, times(1)).saveAll(batch);
+    }
+
+    @Test
+    void testProcessReceipts_ReportsErrorsPerReceipt() {
+        // Arrange
+        Receipt invalid = new Receipt();
+        invalid.setRetailer("Broken");
+        invalid.setTotal(BigDecimal.ONE);
+        List<Receipt> batch = Arrays.asList(validReceipt, invalid, null);
+
+        // Act & Assert
+        InvalidBatchException exception = assertThrows(InvalidBatchException.class, () -> {
+            receiptService.processReceipts(batch);
+        });
+
+        assertEquals(2, exception.getErrors().size());
+        assertEquals("The receipt is invalid : Receipt must have at least one item", exception.getErrors().get(1));
+        assertEquals("The receipt is invalid : Receipt cannot be null", exception.getErrors().get(2));
+        verifyNoInteractions(receiptStore);
     }
 
     @Test
     void testGetPoints_ValidId() {
         // Arrange
         UUID receiptId = validReceipt.getId();
-        when(receiptRepository.findById(receiptId)).thenReturn(Optional.of(validReceipt));
+        when(pointsCache.get(receiptId)).thenReturn(null); // a mocked Integer would otherwise default to 0, a hit
+        when(receiptStore.findPoints(receiptId)).thenReturn(Optional.of(42));
+
+        // Act
+        int points = receiptService.getPoints(receiptId);
+
+        // Assert
+        assertEquals(42, points); // Points are read from the stored column
+        verify(receiptStore, times(1)).findPoints(receiptId);
+        verify(pointsCache, times(1)).putIfCurrent(receiptId, 42, 0L);
+    }
+
+    @Test
+    void testGetPoints_CachedId() {
+        // Arrange
+        UUID receiptId = validReceipt.getId();
+        when(pointsCache.get(receiptId)).thenReturn(17);
 
         // Act
         int points = receiptService.getPoints(receiptId);
 
         // Assert
-        assertTrue(points > 0); // Points calculation logic is already covered in the service
-        verify(receiptRepository, times(1)).findById(receiptId);
+        assertEquals(17, points);
+        verifyNoInteractions(receiptStore);
     }
 
     @Test
     void testGetPoints_InvalidId() {
         // Arrange
         UUID invalidId = UUID.randomUUID();
-        when(receiptRepository.findById(invalidId)).thenReturn(Optional.empty());
+        when(pointsCache.get(invalidId)).thenReturn(null);
+        when(receiptStore.findPoints(invalidId)).thenReturn(Optional.empty());
 
         // Act & Assert
         Exception exception = assertThrows(ReceiptNotFoundException.class, () -> {
@@ -130,7 +295,68 @@ class ReceiptServiceTest {
         });
 
         assertEquals("No receipt found for that id:" + invalidId, exception.getMessage());
-        verify(receiptRepository, times(1)).findById(invalidId);
+        verify(receiptStore, times(1)).findPoints(invalidId);
+        verify(receiptMetrics, times(1)).recordNotFound();
+    }
+
+    @Test
+    void testGetPoints_Bulk() {
+        // Arrange
+        UUID cachedId = UUID.randomUUID();
+        UUID storedId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        when(pointsCache.get(any(UUID.class))).thenReturn(null);
+        when(pointsCache.get(cachedId)).thenReturn(12);
+        when(receiptStore.findPoints(List.of(storedId, missingId))).thenReturn(Map.of(storedId, 34));
+
+        // Act
+        BulkPointsResult result = receiptService.getPoints(List.of(storedId, cachedId, missingId, storedId));
+
+        // Assert
+        assertEquals(List.of(storedId, cachedId), List.copyOf(result.points().keySet()));
+        assertEquals(34, result.points().get(storedId));
+        assertEquals(12, result.points().get(cachedId));
+        assertEquals(List.of(missingId), result.missing());
+        verify(receiptStore, times(1)).findPoints(anyCollection());
+        verify(pointsCache, never()).put(any(UUID.class), anyInt());
+        verify(pointsCache, never()).putIfCurrent(any(UUID.class), anyInt(), anyLong());
+    }
+
+    @Test
+    void testGetPoints_BulkImmutableList() {
+        // Arrange: List.of rejects contains(null), so the null check must not rely on it
+        UUID storedId = UUID.randomUUID();
+        when(pointsCache.get(storedId)).thenReturn(null);
+        when(receiptStore.findPoints(List.of(storedId))).thenReturn(Map.of(storedId, 34));
+
+        // Act
+        BulkPointsResult result = receiptService.getPoints(List.of(storedId));
+
+        // Assert
+        assertEquals(Map.of(storedId, 34), result.points());
+        assertEquals(List.of(), result.missing());
+    }
+
+    @Test
+    void testGetPoints_BulkNullId() {
+        // Act & Assert
+        Exception exception = assertThrows(InvalidReceiptException.class, () -> {
+            receiptService.getPoints(Arrays.asList(UUID.randomUUID(), null));
+        });
+
+        assertEquals("The lookup is invalid : Receipt id cannot be null", exception.getMessage());
+        verifyNoInteractions(receiptStore);
+    }
+
+    @Test
+    void testGetPoints_BulkEmpty() {
+        // Act & Assert
+        Exception exception = assertThrows(InvalidReceiptException.class, () -> {
+            receiptService.getPoints(List.of());
+        });
+
+        assertEquals("The lookup is invalid : At least one receipt id is required", exception.getMessage());
+        verifyNoInteractions(receiptStore);
     }
 
     @Test
@@ -146,12 +372,13 @@ class ReceiptServiceTest {
         validReceipt.setPurchaseDate(LocalDate.of(2022, 11, 27)); // Odd day = 6 points
         validReceipt.setPurchaseTime(LocalTime.of(15, 00)); // Within 2-4 pm = 10 points
 
-        when(receiptRepository.findById(validReceipt.getId())).thenReturn(Optional.of(validReceipt));
+        when(receiptStore.save(any(Receipt.class))).thenReturn(validReceipt.getId());
 
         // Act
-        int points = receiptService.getPoints(validReceipt.getId());
+        receiptService.processReceipt(validReceipt);
 
         // Assert
-        assertEquals(7 + 50 + 25 + 5 + 1 + 1 + 6 + 10, points); // Summing all expected points
+        assertEquals(7 + 50 + 25 + 5 + 1 + 1 + 6 + 10, validReceipt.getPoints()); // Summing all expected points
+        assertEquals(2, validReceipt.getPointsBreakdown().getItemDescriptionPoints());
     }
 }
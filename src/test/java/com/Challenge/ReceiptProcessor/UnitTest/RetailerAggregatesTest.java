@@ -0,0 +1,93 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.InvalidReceiptException;
+import com.Challenge.ReceiptProcessor.Service.RetailerAggregates;
+import com.Challenge.ReceiptProcessor.Service.RetailerStats;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetailerAggregatesTest {
+
+    private static Receipt receipt(String retailer, int points, String total) {
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(retailer);
+        receipt.setPoints(points);
+        receipt.setTotal(new BigDecimal(total));
+        return receipt;
+    }
+
+    @Test
+    void testOnStored_AccumulatesTotalsAndAverage() {
+        // Arrange
+        RetailerAggregates aggregates = new RetailerAggregates(10);
+
+        // Act
+        aggregates.onStored(receipt("Target", 28, "35.35"));
+        aggregates.onStored(receipt("Target", 10, "10.00"));
+
+        // Assert
+        RetailerStats stats = aggregates.get("Target");
+        assertEquals(2, stats.receipts());
+        assertEquals(38, stats.points());
+        assertEquals(new BigDecimal("45.35"), stats.totalAmount());
+        assertEquals(new BigDecimal("22.68"), stats.averageBasket());
+        assertNull(aggregates.get("Walgreens"));
+    }
+
+    @Test
+    void testTop_RanksByRequestedValue() {
+        // Arrange
+        RetailerAggregates aggregates = new RetailerAggregates(10);
+        aggregates.onStored(receipt("Target", 100, "1.00"));
+        aggregates.onStored(receipt("Walgreens", 10, "90.00"));
+        aggregates.onStored(receipt("Walgreens", 10, "5.00"));
+        aggregates.onStored(receipt("M&M Corner Market", 50, "20.00"));
+
+        // Act
+        List<RetailerStats> byPoints = aggregates.top(2, "points");
+        List<RetailerStats> byReceipts = aggregates.top(1, "RECEIPTS");
+        List<RetailerStats> byAmount = aggregates.top(10, "amount");
+
+        // Assert
+        assertEquals(List.of("Target", "M&M Corner Market"), byPoints.stream().map(RetailerStats::retailer).toList());
+        assertEquals("Walgreens", byReceipts.get(0).retailer());
+        assertEquals(List.of("Walgreens", "M&M Corner Market", "Target"), byAmount.stream().map(RetailerStats::retailer).toList());
+    }
+
+    @Test
+    void testTop_RejectsInvalidQuery() {
+        RetailerAggregates aggregates = new RetailerAggregates(10);
+
+        Exception limit = assertThrows(InvalidReceiptException.class, () -> aggregates.top(11, "points"));
+        Exception ranking = assertThrows(InvalidReceiptException.class, () -> aggregates.top(5, "name"));
+
+        assertEquals("The query is invalid : Limit must be between 1 and 10", limit.getMessage());
+        assertEquals("The query is invalid : Ranking must be one of points, receipts, amount", ranking.getMessage());
+    }
+
+    @Test
+    void testOnStored_ConcurrentIngestsForOneRetailer() throws InterruptedException {
+        // Arrange
+        RetailerAggregates aggregates = new RetailerAggregates(10);
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.submit(() -> aggregates.onStored(receipt("Target", 3, "1.25")));
+            }
+        }
+
+        // Assert
+        RetailerStats stats = aggregates.get("Target");
+        assertEquals(10_000, stats.receipts());
+        assertEquals(30_000, stats.points());
+        assertEquals(new BigDecimal("12500.00"), stats.totalAmount());
+    }
+}
@@ -0,0 +1,202 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Repository.InMemoryReceiptStore;
+import com.Challenge.ReceiptProcessor.Repository.LogReceiptStore;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Repository.RetentionCutoff;
+import com.Challenge.ReceiptProcessor.Service.DedupIndex;
+import com.Challenge.ReceiptProcessor.Service.PointsCache;
+import com.Challenge.ReceiptProcessor.Service.ReceiptFingerprint;
+import com.Challenge.ReceiptProcessor.Service.RetentionSweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionSweeperTest {
+
+    private static final Instant NOW = Instant.parse("2024-06-15T12:00:00Z");
+
+    private InMemoryReceiptStore store;
+    private PointsCache pointsCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryReceiptStore();
+        meterRegistry = new SimpleMeterRegistry();
+        pointsCache = new PointsCache(true, 1000, meterRegistry);
+    }
+
+    private RetentionSweeper sweeper(ReceiptStore receiptStore, String basis, int batchSize) {
+        return new RetentionSweeper(receiptStore, pointsCache,
+                new StaticListableBeanFactory().getBeanProvider(DedupIndex.class), meterRegistry,
+                basis, Duration.ofDays(365), Duration.ofMinutes(5), batchSize, Duration.ZERO);
+    }
+
+    private Receipt receipt(LocalDate purchaseDate, Instant ingestedAt) {
+        Receipt receipt = new Receipt();
+        receipt.setId(UUID.randomUUID());
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(purchaseDate);
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal("35.35"));
+        receipt.setItems(Arrays.asList(
+                new Item(null, "Mountain Dew 12PK", new BigDecimal("6.49"), null),
+                new Item(null, null, new BigDecimal("28.86"), null)));
+        receipt.setPointsBreakdown(new PointsBreakdown(6, 0, 0, 5, 6, 6, 0, 5));
+        receipt.setPoints(28);
+        receipt.setIngestedAt(ingestedAt);
+        store.save(receipt);
+        pointsCache.put(receipt.getId(), 28);
+        return receipt;
+    }
+
+    @Test
+    void testSweep_ByPurchaseDate_DeletesExpiredInBatches() throws InterruptedException {
+        // Arrange: 25 receipts purchased two years ago and 5 last month
+        List<Receipt> expired = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            expired.add(receipt(LocalDate.of(2022, 6, 1), NOW));
+        }
+        List<Receipt> kept = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            kept.add(receipt(LocalDate.of(2024, 5, 1), NOW));
+        }
+
+        // Act
+        RetentionSweeper.SweepResult result = sweeper(store, "purchase-date", 10).sweep(NOW);
+
+        // Assert: Three batches, the last one short, and nothing left of the expired receipts
+        assertEquals(new RetentionSweeper.SweepResult(25, 50, 3), result);
+        assertEquals(5, store.count());
+        for (Receipt receipt : expired) {
+            assertEquals(Optional.empty(), store.findPoints(receipt.getId()));
+            assertNull(pointsCache.get(receipt.getId()));
+        }
+        for (Receipt receipt : kept) {
+            assertEquals(Optional.of(28), store.findPoints(receipt.getId()));
+        }
+        assertEquals(25, meterRegistry.get("receipt.retention.deleted.receipts").counter().count());
+        assertEquals(50, meterRegistry.get("receipt.retention.deleted.items").counter().count());
+        assertTrue(meterRegistry.get("receipt.retention.reclaimed").counter().count() > 0);
+        assertEquals(1, meterRegistry.get("receipt.retention.sweep").timer().count());
+    }
+
+    @Test
+    void testSweep_ByIngestTime_KeepsReceiptsWithoutIngestTime() throws InterruptedException {
+        // Arrange: Old purchase dates throughout, so only the ingest time decides
+        Receipt expired = receipt(LocalDate.of(2020, 1, 1), NOW.minus(Duration.ofDays(400)));
+        Receipt recent = receipt(LocalDate.of(2020, 1, 1), NOW.minus(Duration.ofDays(10)));
+        Receipt legacy = receipt(LocalDate.of(2020, 1, 1), null);
+
+        // Act
+        RetentionSweeper.SweepResult result = sweeper(store, "ingest-time", 10).sweep(NOW);
+
+        // Assert
+        assertEquals(1, result.receipts());
+        assertEquals(Optional.empty(), store.findPoints(expired.getId()));
+        assertEquals(Optional.of(28), store.findPoints(recent.getId()));
+        assertEquals(Optional.of(28), store.findPoints(legacy.getId()));
+    }
+
+    @Test
+    void testSweep_FreesFingerprintOfDeletedReceipt() throws InterruptedException {
+        // Arrange
+        byte[] fingerprint = new byte[16];
+        fingerprint[0] = 1;
+        Receipt receipt = new Receipt();
+        receipt.setId(UUID.randomUUID());
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 6, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal("6.49"));
+        receipt.setItems(List.of(new Item(null, "Mountain Dew 12PK", new BigDecimal("6.49"), null)));
+        receipt.setPoints(6);
+        receipt.setFingerprint(fingerprint);
+        store.save(receipt);
+
+        // Act
+        sweeper(store, "purchase-date", 10).sweep(NOW);
+
+        // Assert
+        assertEquals(Optional.empty(), store.findIdByFingerprint(fingerprint));
+    }
+
+    @Test
+    void testSweep_ForgetsDedupClaimOfDeletedReceipt() throws InterruptedException {
+        // Arrange: The dedup index answers from memory with the ID claimed for the fingerprint
+        DedupIndex dedupIndex = new DedupIndex(store, 100, meterRegistry);
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("dedupIndex", dedupIndex);
+        RetentionSweeper sweeper = new RetentionSweeper(store, pointsCache, beans.getBeanProvider(DedupIndex.class),
+                meterRegistry, "purchase-date", Duration.ofDays(365), Duration.ofMinutes(5), 10, Duration.ZERO);
+        ReceiptFingerprint fingerprint = new ReceiptFingerprint(1, 2);
+        Receipt receipt = receipt(LocalDate.of(2022, 6, 1), NOW);
+        assertNull(dedupIndex.claim(fingerprint, receipt.getId()));
+        receipt.setFingerprint(fingerprint.toBytes());
+        store.save(receipt);
+        dedupIndex.commit(fingerprint, receipt.getId());
+
+        // Act
+        sweeper.sweep(NOW);
+
+        // Assert: The fingerprint can be claimed again by a new receipt
+        assertNull(dedupIndex.claim(fingerprint, UUID.randomUUID()));
+    }
+
+    @Test
+    void testSweep_KeepsReceiptResavedWithNewerDate() throws InterruptedException {
+        // Arrange: The same receipt stored first with an expired purchase date, then with a recent one
+        Receipt receipt = receipt(LocalDate.of(2022, 6, 1), NOW);
+        receipt.setPurchaseDate(LocalDate.of(2024, 5, 1));
+        store.save(receipt);
+
+        // Act
+        RetentionSweeper.SweepResult result = sweeper(store, "purchase-date", 10).sweep(NOW);
+
+        // Assert
+        assertEquals(0, result.receipts());
+        assertEquals(Optional.of(28), store.findPoints(receipt.getId()));
+    }
+
+    @Test
+    void testCutoff_ByPurchaseDate() {
+        // Act
+        RetentionCutoff cutoff = sweeper(store, "purchase-date", 10).cutoff(NOW);
+
+        // Assert: 365 days before 2024-06-15 is 2023-06-16 in any zone from UTC-12 to UTC+11
+        assertTrue(cutoff.byPurchaseDate());
+        assertEquals(LocalDate.of(2023, 6, 16), cutoff.purchasedBefore());
+        assertTrue(cutoff.isExpired(LocalDate.of(2023, 6, 15), null));
+        assertFalse(cutoff.isExpired(LocalDate.of(2023, 6, 16), null));
+    }
+
+    @Test
+    void testConstructor_RejectsStoreWithoutRetention(@TempDir Path directory) {
+        // Arrange
+        LogReceiptStore logStore = new LogReceiptStore(directory, 1 << 20, 16, false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> sweeper(logStore, "purchase-date", 10));
+        assertThrows(IllegalArgumentException.class, () -> sweeper(store, "purchase-time", 10));
+    }
+}
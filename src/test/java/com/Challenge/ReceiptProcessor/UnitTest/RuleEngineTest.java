@@ -0,0 +1,124 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Scoring.BuiltInRules;
+import com.Challenge.ReceiptProcessor.Scoring.RuleEngine;
+import com.Challenge.ReceiptProcessor.Scoring.ScoringContext;
+import com.Challenge.ReceiptProcessor.Scoring.ScoringRule;
+import com.Challenge.ReceiptProcessor.Service.ScoringEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleEngineTest {
+
+    private Receipt receipt;
+
+    @BeforeEach
+    void setUp() {
+        receipt = new Receipt();
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal("35.35"));
+        receipt.setItems(Arrays.asList(
+                new Item(null, "Mountain Dew 12PK", new BigDecimal("6.49"), null),
+                new Item(null, "Emils Cheese Pizza", new BigDecimal("12.25"), null),
+                new Item(null, "Knorr Creamy Chicken", new BigDecimal("1.26"), null),
+                new Item(null, "Doritos Nacho Cheese", new BigDecimal("3.35"), null),
+                new Item(null, "   Klarbrunn 12-PK 12 FL OZ  ", new BigDecimal("12.00"), null)));
+    }
+
+    @Test
+    void testScore_BuiltInRulesMatchScoringEngine() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RuleEngine engine = new RuleEngine(List.of(), registry, List.of(), 1);
+
+        PointsBreakdown breakdown = engine.score(receipt);
+        PointsBreakdown expected = new PointsBreakdown();
+        ScoringEngine.score(receipt, expected);
+
+        assertEquals(28, breakdown.getTotal()); // The "Target" example from the API specification
+        assertEquals(expected, breakdown);
+        assertEquals(6.0, registry.get("receipt.scoring.rule.points").tag("rule", "retailer-name").functionCounter().count());
+        assertEquals(1, registry.get("receipt.scoring.rule.duration").tag("rule", "odd-day").timer().count());
+    }
+
+    @Test
+    void testScore_DisabledRulesAreLeftOut() {
+        RuleEngine engine = new RuleEngine(List.of(), new SimpleMeterRegistry(), List.of("odd-day", "item-pairs"), 64);
+
+        PointsBreakdown breakdown = engine.score(receipt);
+
+        assertEquals(0, breakdown.getOddDayPoints());
+        assertEquals(0, breakdown.getItemPairPoints());
+        assertEquals(28 - 6 - 10, breakdown.getTotal());
+        assertFalse(engine.activeRules().contains("odd-day"));
+    }
+
+    @Test
+    void testScore_AdditionalRuleCountsAsPromotion() {
+        ScoringRule weekendBonus = new ScoringRule() {
+            @Override
+            public String name() {
+                return "weekend-bonus";
+            }
+
+            @Override
+            public Scope scope() {
+                return Scope.RECEIPT;
+            }
+
+            @Override
+            public int score(ScoringContext context, int itemIndex) {
+                return context.purchaseDate().getDayOfWeek().getValue() >= 6 ? 100 : 0;
+            }
+        };
+        RuleEngine engine = new RuleEngine(List.of(weekendBonus), new SimpleMeterRegistry(), List.of(), 64);
+
+        PointsBreakdown breakdown = engine.score(receipt); // 2022-01-01 is a Saturday
+
+        assertEquals(100, breakdown.getPromotionPoints());
+        assertEquals(128, breakdown.getTotal());
+    }
+
+    @Test
+    void testScore_ItemRuleSkippedWhenNoDescriptionQualifies() {
+        receipt.setItems(Arrays.asList(new Item(null, "ab", new BigDecimal("9.99"), null)));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RuleEngine engine = new RuleEngine(List.of(), registry, List.of(), 1);
+
+        PointsBreakdown breakdown = engine.score(receipt);
+
+        assertEquals(0, breakdown.getItemDescriptionPoints());
+        assertEquals(0.0, registry.get("receipt.scoring.rule.points").tag("rule", "item-description").functionCounter().count());
+    }
+
+    @Test
+    void testItemDescription_AppliesOnlyWhenSomeDescriptionQualifies() {
+        ScoringRule rule = new BuiltInRules.ItemDescription();
+        Receipt none = new Receipt();
+        none.setItems(Arrays.asList(
+                new Item(null, "ab", new BigDecimal("9.99"), null),
+                new Item(null, null, new BigDecimal("1.00"), null),
+                new Item(null, " abcd ", new BigDecimal("2.00"), null)));
+        Receipt last = new Receipt();
+        last.setItems(Arrays.asList(
+                new Item(null, "ab", new BigDecimal("9.99"), null),
+                new Item(null, "  abc\t", new BigDecimal("2.00"), null)));
+
+        assertFalse(rule.appliesTo(new ScoringContext(none)));
+        assertTrue(rule.appliesTo(new ScoringContext(last)));
+        assertTrue(rule.appliesTo(new ScoringContext(receipt)));
+    }
+}
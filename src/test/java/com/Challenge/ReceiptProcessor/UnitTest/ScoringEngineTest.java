@@ -0,0 +1,185 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Service.ScoringEngine;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoringEngineTest {
+
+    private static final String CHARACTERS = "abcXYZ019 -&_.'!\t\u00e9\u00df\u0000\u3042";
+
+    @Test
+    void testScore_MatchesLegacyImplementationOnRandomReceipts() {
+        Random random = new Random(20221127L);
+
+        for (int i = 0; i < 20_000; i++) {
+            Receipt receipt = randomReceipt(random);
+
+            PointsBreakdown breakdown = new PointsBreakdown();
+            ScoringEngine.score(receipt, breakdown);
+
+            assertEquals(legacyPoints(receipt), breakdown.getTotal(), () -> "Mismatch for receipt " + describe(receipt));
+        }
+    }
+
+    @Test
+    void testScore_TimeWindowIsExclusive() {
+        assertEquals(0, ScoringEngine.purchaseTimePoints(LocalTime.of(14, 0)));
+        assertEquals(10, ScoringEngine.purchaseTimePoints(LocalTime.of(14, 0, 0, 1)));
+        assertEquals(10, ScoringEngine.purchaseTimePoints(LocalTime.of(15, 59, 59, 999_999_999)));
+        assertEquals(0, ScoringEngine.purchaseTimePoints(LocalTime.of(16, 0)));
+    }
+
+    @Test
+    void testScore_WhitespaceOnlyDescriptionQualifies() {
+        // "   ".trim() is empty, and zero is a multiple of 3
+        assertEquals(1, ScoringEngine.itemDescriptionPoints("   ", 100));
+        assertEquals(0, ScoringEngine.itemDescriptionPoints(" ab ", 100));
+        assertEquals(3, ScoringEngine.itemDescriptionPoints(" abc ", 1001));
+    }
+
+    @Test
+    void testToCents_MatchesMovePointRight() {
+        Random random = new Random(20240611L);
+
+        for (int i = 0; i < 100_000; i++) {
+            // Every scale the conversion accepts, including trailing zeros beyond cents and the largest fast-path values
+            long unscaled = random.nextBoolean() ? random.nextInt(1_000_000) : random.nextLong(1_000_000_000_000_000L);
+            BigDecimal amount = BigDecimal.valueOf(random.nextBoolean() ? unscaled : -unscaled, random.nextInt(3));
+            if (random.nextInt(10) == 0) {
+                amount = amount.setScale(amount.scale() + 1 + random.nextInt(3));
+            }
+
+            assertEquals(amount.movePointRight(2).longValueExact(), ScoringEngine.toCents(amount), amount::toPlainString);
+        }
+        assertEquals(99_999_999_999_999L, ScoringEngine.toCents(new BigDecimal("999999999999.99")));
+        assertEquals(1_000_000_000_000_000L, ScoringEngine.toCents(new BigDecimal("10000000000000.00")));
+    }
+
+    private Receipt randomReceipt(Random random) {
+        Receipt receipt = new Receipt();
+        receipt.setRetailer(random.nextInt(20) == 0 ? null : randomText(random, 30));
+        receipt.setTotal(random.nextInt(20) == 0 ? null : randomAmount(random));
+        receipt.setPurchaseDate(random.nextInt(20) == 0 ? null
+                : LocalDate.of(2000 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        receipt.setPurchaseTime(random.nextInt(20) == 0 ? null : randomTime(random));
+
+        if (random.nextInt(20) != 0) {
+            int itemCount = random.nextInt(12);
+            List<Item> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                String description = random.nextInt(20) == 0 ? null : randomText(random, 12);
+                BigDecimal price = random.nextInt(20) == 0 ? null : randomAmount(random);
+                items.add(new Item(null, description, price, null));
+            }
+            receipt.setItems(items);
+        }
+        return receipt;
+    }
+
+    private String randomText(Random random, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+        }
+        return builder.toString();
+    }
+
+    // Mixes two-decimal amounts with equivalent scale 0 and 1 forms such as 10 and 10.0
+    private BigDecimal randomAmount(Random random) {
+        long cents = random.nextInt(4) == 0 ? random.nextInt(40) * 25L : random.nextInt(100_000);
+        BigDecimal amount = BigDecimal.valueOf(cents, 2);
+        if (cents % 100 == 0 && random.nextBoolean()) {
+            return amount.setScale(random.nextInt(2));
+        }
+        return amount;
+    }
+
+    private LocalTime randomTime(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return LocalTime.of(14, 0);
+            case 1:
+                return LocalTime.of(16, 0).minusNanos(random.nextInt(2));
+            case 2:
+                return LocalTime.of(14, 0).plusNanos(random.nextInt(2));
+            default:
+                return LocalTime.of(random.nextInt(24), random.nextInt(60), random.nextInt(60));
+        }
+    }
+
+    private String describe(Receipt receipt) {
+        StringBuilder builder = new StringBuilder()
+                .append(receipt.getRetailer()).append(' ')
+                .append(receipt.getTotal()).append(' ')
+                .append(receipt.getPurchaseDate()).append(' ')
+                .append(receipt.getPurchaseTime());
+        if (receipt.getItems() != null) {
+            for (Item item : receipt.getItems()) {
+                builder.append(" [").append(item.getShortDescription()).append(' ').append(item.getPrice()).append(']');
+            }
+        }
+        return builder.toString();
+    }
+
+    // The original BigDecimal and regex based scoring, kept as the reference for the engine
+    private int legacyPoints(Receipt receipt) {
+        int points = 0;
+
+        String retailer = receipt.getRetailer();
+        if (retailer != null) {
+            points += retailer.replaceAll("[^a-zA-Z0-9]", "").length();
+        }
+
+        BigDecimal total = receipt.getTotal();
+        if (total != null && total.remainder(BigDecimal.ONE).compareTo(BigDecimal.ZERO) == 0) {
+            points += 50;
+        }
+        if (total != null && total.remainder(new BigDecimal("0.25")).compareTo(BigDecimal.ZERO) == 0) {
+            points += 25;
+        }
+
+        List<Item> items = receipt.getItems();
+        if (items != null) {
+            points += (items.size() / 2) * 5;
+        }
+        if (items != null) {
+            for (Item item : items) {
+                String description = item.getShortDescription();
+                if (description != null && description.trim().length() % 3 == 0) {
+                    BigDecimal price = item.getPrice();
+                    if (price != null) {
+                        BigDecimal bonus = price.multiply(new BigDecimal("0.2")).setScale(0, RoundingMode.UP);
+                        points += bonus.intValue();
+                    }
+                }
+            }
+        }
+
+        LocalDate purchaseDate = receipt.getPurchaseDate();
+        if (purchaseDate != null && purchaseDate.getDayOfMonth() % 2 != 0) {
+            points += 6;
+        }
+
+        LocalTime purchaseTime = receipt.getPurchaseTime();
+        if (purchaseTime != null &&
+                purchaseTime.isAfter(LocalTime.of(14, 0)) &&
+                purchaseTime.isBefore(LocalTime.of(16, 0))) {
+            points += 10;
+        }
+        return points;
+    }
+}
@@ -0,0 +1,180 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.PointsBreakdown;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Repository.ExpiredReceipts;
+import com.Challenge.ReceiptProcessor.Repository.RetentionCutoff;
+import com.Challenge.ReceiptProcessor.Repository.ShardedReceiptStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedReceiptStoreTest {
+
+    private ShardedReceiptStore store;
+
+    @BeforeEach
+    void setUp() {
+        // A fresh set of databases per test
+        store = new ShardedReceiptStore(4, "jdbc:h2:mem:shard-test-" + UUID.randomUUID() + "-%d;DB_CLOSE_DELAY=-1", 2, 100);
+        store.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    private Receipt receipt(int points) {
+        Receipt receipt = new Receipt();
+        receipt.setId(UUID.randomUUID());
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal("35.35"));
+        receipt.setItems(Arrays.asList(
+                new Item(null, "Mountain Dew 12PK", new BigDecimal("6.49"), null),
+                new Item(null, null, new BigDecimal("28.86"), null)));
+        receipt.setPointsBreakdown(new PointsBreakdown(6, 0, 0, 5, 6, 6, 0, points - 23));
+        receipt.setPoints(points);
+        return receipt;
+    }
+
+    @Test
+    void testSaveAll_SpreadsAcrossShardsAndKeepsOrder() {
+        // Arrange
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            receipts.add(receipt(i));
+        }
+
+        // Act
+        List<UUID> ids = store.saveAll(receipts);
+
+        // Assert
+        assertEquals(receipts.stream().map(Receipt::getId).toList(), ids);
+        assertEquals(400, store.count());
+        for (long count : store.countByShard()) {
+            assertTrue(count > 50, "Each shard should hold a share of the receipts");
+        }
+        assertEquals(Optional.of(7), store.findPoints(receipts.get(7).getId()));
+        assertEquals(Optional.empty(), store.findPoints(UUID.randomUUID()));
+        assertEquals(Optional.of(receipts.get(7).getPointsBreakdown()), store.findBreakdown(receipts.get(7).getId()));
+        assertEquals(Optional.empty(), store.findBreakdown(UUID.randomUUID()));
+    }
+
+    @Test
+    void testFindPoints_BulkAcrossShards() {
+        // Arrange
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            receipts.add(receipt(i));
+        }
+        store.saveAll(receipts);
+        List<UUID> ids = new ArrayList<>(receipts.stream().map(Receipt::getId).toList());
+        UUID unknown = UUID.randomUUID();
+        ids.add(unknown);
+
+        // Act
+        Map<UUID, Integer> points = store.findPoints(ids);
+
+        // Assert
+        assertEquals(250, points.size());
+        assertEquals(42, points.get(receipts.get(42).getId()));
+        assertFalse(points.containsKey(unknown));
+    }
+
+    @Test
+    void testFingerprint_FoundOnAnyShardAndUniqueWithinShard() {
+        // Arrange
+        byte[] fingerprint = new byte[16];
+        fingerprint[0] = 1;
+        Receipt first = receipt(10);
+        first.setFingerprint(fingerprint);
+        store.save(first);
+
+        // A second receipt with the same fingerprint that lands on the same shard
+        Receipt second = receipt(10);
+        while (store.shardOf(second.getId()) != store.shardOf(first.getId())) {
+            second.setId(UUID.randomUUID());
+        }
+        second.setFingerprint(fingerprint.clone());
+
+        // Act & Assert
+        assertEquals(Optional.of(first.getId()), store.findIdByFingerprint(fingerprint));
+        assertThrows(DataIntegrityViolationException.class, () -> store.save(second));
+        assertEquals(1, store.count());
+    }
+
+    @Test
+    void testSaveAll_FailureOnOneShardUndoesTheOthers() {
+        // Arrange: A stored receipt, and a batch over every shard whose copy of its fingerprint fails on its shard
+        byte[] fingerprint = new byte[16];
+        fingerprint[0] = 2;
+        Receipt stored = receipt(10);
+        stored.setFingerprint(fingerprint);
+        store.save(stored);
+
+        Receipt conflicting = receipt(10);
+        while (store.shardOf(conflicting.getId()) != store.shardOf(stored.getId())) {
+            conflicting.setId(UUID.randomUUID());
+        }
+        conflicting.setFingerprint(fingerprint.clone());
+        List<Receipt> batch = new ArrayList<>(List.of(conflicting));
+        for (int shard = 0; shard < store.shardCount(); shard++) {
+            Receipt receipt = receipt(20);
+            while (store.shardOf(receipt.getId()) != shard) {
+                receipt.setId(UUID.randomUUID());
+            }
+            batch.add(receipt);
+        }
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> store.saveAll(batch));
+        assertEquals(1, store.count());
+        assertEquals(Map.of(), store.findPoints(batch.stream().map(Receipt::getId).toList()));
+    }
+
+    @Test
+    void testDeleteExpired_FillsBatchAcrossShards() {
+        // Arrange: 100 receipts ingested long ago and 20 just now
+        Instant now = Instant.parse("2024-06-15T12:00:00Z");
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Receipt receipt = receipt(i);
+            receipt.setIngestedAt(i < 100 ? now.minusSeconds(86_400 * 400) : now);
+            receipts.add(receipt);
+        }
+        store.saveAll(receipts);
+        RetentionCutoff cutoff = RetentionCutoff.ingestedBefore(now.minusSeconds(86_400));
+
+        // Act
+        ExpiredReceipts first = store.deleteExpired(cutoff, 60);
+        ExpiredReceipts second = store.deleteExpired(cutoff, 60);
+        ExpiredReceipts third = store.deleteExpired(cutoff, 60);
+
+        // Assert
+        assertEquals(60, first.ids().size());
+        assertEquals(120, first.itemCount());
+        assertEquals(40, second.ids().size());
+        assertTrue(third.isEmpty());
+        assertEquals(20, store.count());
+        assertEquals(Optional.empty(), store.findPoints(receipts.get(0).getId()));
+        assertEquals(Optional.of(110), store.findPoints(receipts.get(110).getId()));
+    }
+}
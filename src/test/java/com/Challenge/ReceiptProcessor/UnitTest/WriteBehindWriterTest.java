@@ -0,0 +1,141 @@
+package com.Challenge.ReceiptProcessor.UnitTest;
+
+import com.Challenge.ReceiptProcessor.Entity.Item;
+import com.Challenge.ReceiptProcessor.Entity.Receipt;
+import com.Challenge.ReceiptProcessor.Exception.IngestUnavailableException;
+import com.Challenge.ReceiptProcessor.Repository.ReceiptStore;
+import com.Challenge.ReceiptProcessor.Service.PointsCache;
+import com.Challenge.ReceiptProcessor.Service.WriteBehindWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class WriteBehindWriterTest {
+
+    private ReceiptStore receiptStore;
+    private PointsCache pointsCache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        receiptStore = mock(ReceiptStore.class);
+        meterRegistry = new SimpleMeterRegistry();
+        pointsCache = new PointsCache(true, 1000, meterRegistry);
+    }
+
+    private WriteBehindWriter writer() {
+        WriteBehindWriter writer = new WriteBehindWriter(receiptStore, pointsCache, meterRegistry,
+                100, 50, WriteBehindWriter.Durability.QUEUED, 1000, 5000);
+        writer.start();
+        return writer;
+    }
+
+    private Receipt receipt(int points) {
+        Receipt receipt = new Receipt();
+        receipt.setId(UUID.randomUUID());
+        receipt.setRetailer("Target");
+        receipt.setPurchaseDate(LocalDate.of(2022, 1, 1));
+        receipt.setPurchaseTime(LocalTime.of(13, 1));
+        receipt.setTotal(new BigDecimal("6.49"));
+        receipt.setItems(new ArrayList<>(List.of(new Item(7L, "Mountain Dew 12PK", new BigDecimal("6.49"), null))));
+        receipt.setPoints(points);
+        return receipt;
+    }
+
+    @Test
+    void testFailedBatch_RetriesReceiptsOneAtATime() throws InterruptedException {
+        // Arrange: Every batch fails, and so does one of the receipts on its own
+        Receipt good = receipt(10);
+        Receipt bad = receipt(20);
+        when(receiptStore.saveAll(anyList())).thenThrow(new IllegalStateException("batch failed"));
+        when(receiptStore.save(argThat(receipt -> receipt != null && receipt.getId().equals(bad.getId()))))
+                .thenThrow(new IllegalStateException("bad receipt"));
+        WriteBehindWriter writer = writer();
+
+        // Act
+        writer.submit(good);
+        writer.submit(bad);
+        writer.stop();
+
+        // Assert: The good receipt was written and cached, the bad one is neither pending nor cached
+        verify(receiptStore).save(argThat(receipt -> receipt != null && receipt.getId().equals(good.getId())));
+        assertNull(good.getItems().get(0).getId());
+        assertEquals(10, pointsCache.get(good.getId()));
+        assertNull(pointsCache.get(bad.getId()));
+        assertNull(writer.getPendingPoints(good.getId()));
+        assertNull(writer.getPendingPoints(bad.getId()));
+        assertEquals(1, meterRegistry.get("receipt.ingest.write-behind.written").counter().count());
+        assertEquals(1, meterRegistry.get("receipt.ingest.write-behind.failed").counter().count());
+    }
+
+    @Test
+    void testFailedReceipt_RunsItsFailureCallbackAndCommittedReceipt_RunsItsCommitCallback() throws InterruptedException {
+        // Arrange
+        Receipt good = receipt(10);
+        Receipt bad = receipt(20);
+        when(receiptStore.saveAll(anyList())).thenThrow(new IllegalStateException("batch failed"));
+        when(receiptStore.save(argThat(receipt -> receipt != null && receipt.getId().equals(bad.getId()))))
+                .thenThrow(new IllegalStateException("bad receipt"));
+        AtomicInteger goodCommits = new AtomicInteger();
+        AtomicInteger goodFailures = new AtomicInteger();
+        AtomicInteger badCommits = new AtomicInteger();
+        AtomicInteger badFailures = new AtomicInteger();
+        WriteBehindWriter writer = writer();
+
+        // Act
+        writer.submit(good, goodCommits::incrementAndGet, goodFailures::incrementAndGet);
+        writer.submit(bad, badCommits::incrementAndGet, badFailures::incrementAndGet);
+        writer.stop();
+
+        // Assert
+        assertEquals(1, goodCommits.get());
+        assertEquals(0, goodFailures.get());
+        assertEquals(0, badCommits.get());
+        assertEquals(1, badFailures.get());
+    }
+
+    @Test
+    void testStop_WritesEverythingAcknowledgedAndRejectsLaterSubmissions() throws InterruptedException {
+        // Arrange: Record what reaches the store instead of reading the cache back, which may evict
+        Set<UUID> written = ConcurrentHashMap.newKeySet();
+        when(receiptStore.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Receipt> batch = invocation.getArgument(0);
+            batch.forEach(receipt -> written.add(receipt.getId()));
+            return batch.stream().map(Receipt::getId).toList();
+        });
+        WriteBehindWriter writer = writer();
+        List<Receipt> receipts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            receipts.add(receipt(i));
+        }
+
+        // Act
+        for (Receipt receipt : receipts) {
+            writer.submit(receipt);
+        }
+        writer.stop();
+
+        // Assert
+        for (Receipt receipt : receipts) {
+            assertTrue(written.contains(receipt.getId()));
+            assertNull(writer.getPendingPoints(receipt.getId()));
+        }
+        assertEquals(200, meterRegistry.get("receipt.ingest.write-behind.written").counter().count());
+        assertThrows(IngestUnavailableException.class, () -> writer.submit(receipt(1)));
+    }
+}